@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.benchmarks;
+
+import be.bosa.dt.cbetools.common.CBEConverter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the helper methods and row-level conversion functions in CBEConverter.
+ * Each invocation converts a single (synthetic) value or row.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CBEConverterBenchmark {
+	// number of different rows, power of 2
+	private final static int SIZE = 1024;
+
+	private String[][] enterprises;
+	private String[][] denominations;
+	private String[][] contacts;
+	private String[][] activities;
+	private String[][] addresses;
+	private String[][] best;
+	private String[] phones;
+	private String[] pages;
+	private String[] mails;
+
+	private int i = 0;
+
+	@Setup
+	public void setup() {
+		SyntheticData data = new SyntheticData(42);
+		enterprises = data.rows(SIZE, n -> data.enterprise());
+		denominations = data.rows(SIZE, n -> data.denomination());
+		activities = data.rows(SIZE, n -> data.activity());
+		addresses = data.rows(SIZE, n -> data.address());
+		best = data.rows(SIZE, n -> data.best());
+		contacts = data.rows(SIZE, n -> data.contact());
+		phones = new String[SIZE];
+		pages = new String[SIZE];
+		mails = new String[SIZE];
+		for (int n = 0; n < SIZE; n++) {
+			phones[n] = contactValue(data, "TEL");
+			pages[n] = contactValue(data, "WEB");
+			mails[n] = contactValue(data, "EMAIL");
+		}
+	}
+
+	/**
+	 * Get a random contact value of a specific type
+	 * 
+	 * @param data synthetic data generator
+	 * @param type contact type
+	 * @return value
+	 */
+	private static String contactValue(SyntheticData data, String type) {
+		String[] row;
+		do {
+			row = data.contact();
+		} while (!row[2].equals(type));
+		return row[3];
+	}
+
+	/**
+	 * Next index, cycling through the pre-generated rows
+	 * 
+	 * @return index
+	 */
+	private int next() {
+		i = (i + 1) & (SIZE - 1);
+		return i;
+	}
+
+	/**
+	 * Consume all statements of a stream
+	 * 
+	 * @param fun conversion function
+	 * @param row CSV row
+	 * @param bh black hole
+	 */
+	private static void consume(Function<String[], Stream<Statement>> fun, String[] row, Blackhole bh) {
+		fun.apply(row).forEach(bh::consume);
+	}
+
+	@Benchmark
+	public IRI makeID() {
+		return CBEConverter.makeID(enterprises[next()][0]);
+	}
+
+	@Benchmark
+	public IRI makeAddress() {
+		String[] row = addresses[next()];
+		return CBEConverter.makeAddress(row[2], row[3], row[4], row[7], row[8], row[9], row[10]);
+	}
+
+	@Benchmark
+	public IRI asPhone() {
+		return CBEConverter.asPhone(phones[next()]);
+	}
+
+	@Benchmark
+	public IRI asPage() {
+		return CBEConverter.asPage(pages[next()]);
+	}
+
+	@Benchmark
+	public IRI asMail() {
+		return CBEConverter.asMail(mails[next()]);
+	}
+
+	@Benchmark
+	public Literal asDateLiteral() {
+		return CBEConverter.asDateLiteral(enterprises[next()][5]);
+	}
+
+	@Benchmark
+	public String guessLang() {
+		return CBEConverter.guessLang(addresses[next()][4]);
+	}
+
+	@Benchmark
+	public void addresses(Blackhole bh) {
+		consume(CBEConverter.Addresses, addresses[next()], bh);
+	}
+
+	@Benchmark
+	public void names(Blackhole bh) {
+		consume(CBEConverter.Names, denominations[next()], bh);
+	}
+
+	@Benchmark
+	public void org(Blackhole bh) {
+		consume(CBEConverter.Org, enterprises[next()], bh);
+	}
+
+	@Benchmark
+	public void contacts(Blackhole bh) {
+		consume(CBEConverter.Contacts, contacts[next()], bh);
+	}
+
+	@Benchmark
+	public void activities(Blackhole bh) {
+		consume(CBEConverter.Activities, activities[next()], bh);
+	}
+
+	@Benchmark
+	public void best(Blackhole bh) {
+		consume(CBEConverter.Best, best[next()], bh);
+	}
+}
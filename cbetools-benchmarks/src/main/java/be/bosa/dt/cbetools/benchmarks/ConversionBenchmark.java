@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.benchmarks;
+
+import be.bosa.dt.cbetools.common.CBEConverter;
+import be.bosa.dt.cbetools.common.CBEEmitter;
+import be.bosa.dt.cbetools.common.CachingValueFactory;
+import be.bosa.dt.cbetools.common.NTriplesSink;
+import be.bosa.dt.cbetools.common.RowEmitter;
+import be.bosa.dt.cbetools.converter.CsvPipeline;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of converting a complete synthetic CSV file, discarding the output.
+ * The size of the generated data set can be set with the "rows" parameter 
+ * (e.g. -p rows=1000000), which is the number of enterprises.
+ * The "cache" parameter sets the size of the value cache used when creating statements, 0 means no cache.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConversionBenchmark {
+	private final static Map<String, Function<String[], Stream<Statement>>> FUNCTIONS = Map.of(
+		"enterprise.csv", CBEConverter.Org,
+		"denomination.csv", CBEConverter.Names,
+		"establishment.csv", CBEConverter.Sites,
+		"contact.csv", CBEConverter.Contacts,
+		"activity.csv", CBEConverter.Activities,
+		"address.csv", CBEConverter.Addresses);
+
+	private final static Map<String, RowEmitter> EMITTERS = Map.of(
+		"enterprise.csv", CBEEmitter.Org,
+		"denomination.csv", CBEEmitter.Names,
+		"establishment.csv", CBEEmitter.Sites,
+		"contact.csv", CBEEmitter.Contacts,
+		"activity.csv", CBEEmitter.Activities,
+		"address.csv", CBEEmitter.Addresses);
+
+	@Param({"10000"})
+	public int rows;
+
+	@Param({"enterprise.csv", "denomination.csv", "establishment.csv", "contact.csv", "activity.csv", 
+			"address.csv"})
+	public String file;
+
+	@Param({"0"})
+	public int cache;
+
+	private File dir;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("cbe-bench").toFile();
+		new SyntheticData(42).writeAll(dir, rows);
+		CBEConverter.setValueFactory((cache > 0) 
+			? new CachingValueFactory(cache, 256) : SimpleValueFactory.getInstance());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		CBEConverter.setValueFactory(SimpleValueFactory.getInstance());
+		for (File f: dir.listFiles()) {
+			f.delete();
+		}
+		dir.delete();
+	}
+
+	/**
+	 * Open the CSV file
+	 * 
+	 * @return reader
+	 * @throws IOException 
+	 */
+	private Reader open() throws IOException {
+		return new InputStreamReader(new FileInputStream(new File(dir, file)), StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public void statements() throws IOException {
+		// same buffering as the converter
+		RDFWriter rdf = Rio.createWriter(RDFFormat.NTRIPLES, 
+			new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8)));
+		rdf.startRDF();
+		CsvPipeline.toRDF(rdf, open(), FUNCTIONS.get(file), 10000);
+		rdf.endRDF();
+	}
+
+	@Benchmark
+	public void direct() throws IOException {
+		CsvPipeline.toNTriples(OutputStream.nullOutputStream(), new NTriplesSink(1024 * 1024), open(), 
+			EMITTERS.get(file), 10000);
+	}
+}
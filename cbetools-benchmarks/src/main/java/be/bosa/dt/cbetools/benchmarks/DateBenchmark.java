@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.benchmarks;
+
+import be.bosa.dt.cbetools.common.CBEConverter;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the previous SimpleDateFormat-based conversion of DD-MM-YYYY start dates
+ * with the fixed-width parser, with and without memoization of the date literals.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateBenchmark {
+	private final static ValueFactory F = SimpleValueFactory.getInstance();
+
+	// number of different dates, power of 2
+	private final static int SIZE = 8192;
+
+	@Param({"0", "65536"})
+	private int cache;
+
+	private final SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
+	private String[] dates;
+	private int i = 0;
+
+	@Setup
+	public void setup() {
+		SyntheticData data = new SyntheticData(42);
+		dates = new String[SIZE];
+		for (int n = 0; n < SIZE; n++) {
+			dates[n] = data.date();
+		}
+		CBEConverter.setDateCacheSize(cache);
+	}
+
+	/**
+	 * Next index, cycling through the pre-generated dates
+	 * 
+	 * @return index
+	 */
+	private int next() {
+		i = (i + 1) & (SIZE - 1);
+		return i;
+	}
+
+	@Benchmark
+	public Literal simpleDateFormat() throws ParseException {
+		Date date = sdf.parse(dates[next()]);
+		return F.createLiteral(date);
+	}
+
+	@Benchmark
+	public Literal fixedWidth() {
+		return CBEConverter.asDateLiteral(dates[next()]);
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.benchmarks;
+
+import be.belgif.org.CbeHtmlReader;
+import be.belgif.org.dao.CbeOrganization;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the previous extraction of the CBE public search HTML page (full DOM, selectors parsed 
+ * and evaluated one by one) with the proxy's streaming, single-pass reader, 
+ * using the selectors from the proxy's application.properties.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlReaderBenchmark {
+	private final static String BASEURL = "https://kbopub.economie.fgov.be/kbopub/";
+
+	private Properties props;
+	private Reader reader;
+	private byte[] page;
+
+	/**
+	 * HTML reader configured with the properties, without CDI
+	 */
+	private static class Reader extends CbeHtmlReader {
+		Reader(Properties p) {
+			BASEURL = HtmlReaderBenchmark.BASEURL;
+			TABLE_GENERAL = p.getProperty("be.belgif.org.html.org.table.general");
+			GENERAL_ID_ORG = p.getProperty("be.belgif.org.html.org.general.id");
+			GENERAL_ID_SITE = p.getProperty("be.belgif.org.html.site.general.id");
+			GENERAL_NAMES = p.getProperty("be.belgif.org.html.org.general.names");
+			GENERAL_ABBREVS = p.getProperty("be.belgif.org.html.org.general.abbrevs");
+			GENERAL_EMAIL = p.getProperty("be.belgif.org.html.org.general.email");
+			GENERAL_WEBSITE = p.getProperty("be.belgif.org.html.org.general.website");
+			LANG_NL = p.getProperty("be.belgif.org.html.org.lang.dutch");
+			LANG_FR = p.getProperty("be.belgif.org.html.org.lang.french");
+			LANG_DE = p.getProperty("be.belgif.org.html.org.lang.german");
+			VAT_ACTIVITY = p.getProperty("be.belgif.org.html.org.vat.activity");
+			NSSO_ACTIVITY = p.getProperty("be.belgif.org.html.org.nsso.activity");
+			NSSO_OLD_ACTIVITY = p.getProperty("be.belgif.org.html.org.nsso.activity_old");
+			SITELIST_SITE = p.getProperty("be.belgif.org.html.sitelist.site");
+			SITELIST_NEXT = p.getProperty("be.belgif.org.html.sitelist.next");
+			init();
+		}
+	}
+
+	@Setup
+	public void setup() throws IOException {
+		props = new Properties();
+		try (InputStream in = CbeHtmlReader.class.getResourceAsStream("/application.properties")) {
+			props.load(in);
+		}
+		try (InputStream in = HtmlReaderBenchmark.class.getResourceAsStream("/be/belgif/org/test-bosa.html")) {
+			page = in.readAllBytes();
+		}
+		reader = new Reader(props);
+	}
+
+	/**
+	 * Previous behaviour of the proxy's reader: the selectors are parsed when used, on a complete DOM
+	 * 
+	 * @return organization
+	 * @throws IOException 
+	 */
+	@Benchmark
+	public CbeOrganization domSelectors() throws IOException {
+		CbeOrganization org = new CbeOrganization();
+
+		Document doc = Jsoup.parse(new ByteArrayInputStream(page), StandardCharsets.UTF_8.toString(), BASEURL);
+		Element table = doc.selectFirst(props.getProperty("be.belgif.org.html.org.table.general"));
+		Element orgId = table.selectFirst(props.getProperty("be.belgif.org.html.org.general.id"));
+		Element siteId = table.selectFirst(props.getProperty("be.belgif.org.html.site.general.id"));
+
+		Element names = table.selectFirst(props.getProperty("be.belgif.org.html.org.general.names"));
+		Element abbrevs = table.selectFirst(props.getProperty("be.belgif.org.html.org.general.abbrevs"));
+		Element email = table.selectFirst(props.getProperty("be.belgif.org.html.org.general.email"));
+		Element website = table.selectFirst(props.getProperty("be.belgif.org.html.org.general.website"));
+
+		String langNl = props.getProperty("be.belgif.org.html.org.lang.dutch");
+		String langFr = props.getProperty("be.belgif.org.html.org.lang.french");
+		String langDe = props.getProperty("be.belgif.org.html.org.lang.german");
+
+		if (siteId == null) {
+			org.setParentId(null);
+			org.setId(orgId.ownText().trim());
+		} else {
+			org.setParentId(orgId.text().trim());
+			org.setId(siteId.ownText().trim());
+		}
+
+		if (names != null) {
+			Elements els = names.select(new Evaluator.MatchText());
+			for(int i = 1; i < els.size(); i += 2) {
+				String val = els.get(i-1).text().trim();
+				if (els.get(i).selectFirst(langNl) != null) org.setName("nl", val);
+				if (els.get(i).selectFirst(langFr) != null) org.setName("fr", val);
+				if (els.get(i).selectFirst(langDe) != null) org.setName("de", val);
+			}
+			if (org.getNames().isEmpty()) {
+				org.setName("", names.text());
+			}
+		}
+
+		if (abbrevs != null) {
+			Elements els = abbrevs.select(new Evaluator.MatchText());
+			for(int i = 1; i < els.size(); i += 2) {
+				String val = els.get(i-1).text().trim();
+				if (els.get(i).selectFirst(langNl) != null) org.setAbbrev("nl", val);
+				if (els.get(i).selectFirst(langFr) != null) org.setAbbrev("fr", val);
+				if (els.get(i).selectFirst(langDe) != null) org.setAbbrev("de", val);
+			}
+			if (org.getAbbrevs().isEmpty()) {
+				org.setAbbrev("", abbrevs.text());
+			}
+		}
+
+		if (email != null) {
+			org.setEmail(email.attr("href").trim());
+		}
+		if (website != null) {
+			org.setWebsite(website.attr("href").trim());
+		}
+
+		for (Element act: table.select(props.getProperty("be.belgif.org.html.org.vat.activity"))) {
+			org.setVatActivity(act.text());
+		}
+		for (Element act: table.select(props.getProperty("be.belgif.org.html.org.nsso.activity"))) {
+			org.setNssActivity(act.text());
+		}
+		for (Element act: table.select(props.getProperty("be.belgif.org.html.org.nsso.activity_old"))) {
+			org.setNssOldActivity(act.text());
+		}
+		return org;
+	}
+
+	@Benchmark
+	public CbeOrganization streamSinglePass() throws IOException {
+		return reader.parseOrganization(new ByteArrayInputStream(page));
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.benchmarks;
+
+import be.bosa.dt.cbetools.common.CBEConverter;
+import be.bosa.dt.cbetools.converter.CsvPipeline;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare parsing N-Triples and binary RDF, as a triplestore would do when loading the converted files.
+ * The files are converted from synthetic data once, the sizes of both formats are printed during setup.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutputFormatBenchmark {
+	private final static Map<String, Function<String[], Stream<Statement>>> FUNCTIONS = Map.of(
+		"enterprise.csv", CBEConverter.Org,
+		"denomination.csv", CBEConverter.Names,
+		"contact.csv", CBEConverter.Contacts,
+		"activity.csv", CBEConverter.Activities,
+		"address.csv", CBEConverter.Addresses);
+
+	@Param({"10000"})
+	public int rows;
+
+	@Param({"ntriples", "binary"})
+	public String format;
+
+	private RDFFormat fmt;
+	private byte[] data;
+
+	/**
+	 * Count statements, to make sure the parsed statements are not optimized away
+	 */
+	private static class Counter extends AbstractRDFHandler {
+		private long count = 0;
+
+		@Override
+		public void handleStatement(Statement st) {
+			count++;
+		}
+	}
+
+	/**
+	 * Convert all synthetic CSV files into one file of the given format
+	 * 
+	 * @param dir directory with CSV files
+	 * @param fmt RDF format
+	 * @return converted file as byte array
+	 * @throws IOException 
+	 */
+	private static byte[] convert(File dir, RDFFormat fmt) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		RDFWriter rdf = fmt.hasCharset()
+			? Rio.createWriter(fmt, new BufferedWriter(new OutputStreamWriter(bos, fmt.getCharset())))
+			: Rio.createWriter(fmt, bos);
+		rdf.startRDF();
+		for (Map.Entry<String, Function<String[], Stream<Statement>>> e: FUNCTIONS.entrySet()) {
+			CsvPipeline.toRDF(rdf, new InputStreamReader(new FileInputStream(new File(dir, e.getKey())), 
+				StandardCharsets.UTF_8), e.getValue(), 10000);
+		}
+		rdf.endRDF();
+		return bos.toByteArray();
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		File dir = Files.createTempDirectory("cbe-bench").toFile();
+		new SyntheticData(42).writeAll(dir, rows);
+
+		fmt = format.equals("binary") ? RDFFormat.BINARY : RDFFormat.NTRIPLES;
+		data = convert(dir, fmt);
+		System.out.printf("%n%s: %d bytes%n", fmt.getName(), data.length);
+
+		for (File f: dir.listFiles()) {
+			f.delete();
+		}
+		dir.delete();
+	}
+
+	@Benchmark
+	public long parse() throws IOException {
+		RDFParser parser = Rio.createParser(fmt);
+		Counter counter = new Counter();
+		parser.setRDFHandler(counter);
+		parser.parse(new ByteArrayInputStream(data), "");
+		return counter.count;
+	}
+}
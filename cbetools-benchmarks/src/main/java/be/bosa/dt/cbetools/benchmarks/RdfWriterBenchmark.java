@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.benchmarks;
+
+import be.belgif.org.CbeRdfWriter;
+import be.belgif.org.dao.CbeOrganization;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.ORG;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.ROV;
+import org.eclipse.rdf4j.model.vocabulary.SKOS;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the previous serialization of an organization by the proxy (building an RDF model first) 
+ * with passing the statements straight to a buffered RDF writer, as N-Triples
+ * (the JSON-LD writer is not included in the benchmarks).
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RdfWriterBenchmark {
+	private final static ValueFactory F = SimpleValueFactory.getInstance();
+
+	private final static String ORG_PREFIX = "https://org.belgif.be/id/CbeRegisteredEntity/";
+	private final static String NACE_PREFIX = "https://vocab.belgif.be/auth/nace2025/";
+	private final static String NACE_OLD_PREFIX = "https://vocab.belgif.be/auth/nace2008/";
+
+	private Writer writer;
+	private CbeOrganization org;
+
+	/**
+	 * RDF writer configured with the default prefixes, without CDI
+	 */
+	private static class Writer extends CbeRdfWriter {
+		Writer() {
+			orgPrefix = ORG_PREFIX;
+			sitePrefix = "https://org.belgif.be/id/CbeEstablishmentUnit/";
+			nacePrefix = NACE_PREFIX;
+			naceOldPrefix = NACE_OLD_PREFIX;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		writer = new Writer();
+
+		org = new CbeOrganization();
+		org.setId("0671.516.647");
+		org.setName("nl", "Federale Overheidsdienst Beleid en Ondersteuning");
+		org.setName("fr", "Service Public Fédéral Stratégie et Appui");
+		org.setName("de", "Föderaler Öffentlichter Dienst Politik und Unterstützung");
+		org.setAbbrev("nl", "FOD BOSA");
+		org.setAbbrev("fr", "SPF BOSA");
+		org.setAbbrev("de", "FÖD BOSA");
+		org.setVatActivity("84.119");
+		org.setNssOldActivity("84.111");
+		org.setNssActivity("84.111");
+		org.setWebsite("http://www.bosa.be");
+	}
+
+	@Benchmark
+	public byte[] model() {
+		Model m = new LinkedHashModel();
+		IRI id = F.createIRI(ORG_PREFIX + org.getId().replace(".", ""));
+		m.add(id, RDF.TYPE, ORG.ORGANIZATION);
+		m.add(id, RDF.TYPE, ROV.REGISTERED_ORGANIZATION);
+		for (Entry<String, String> e: org.getNames().entrySet()) {
+			m.add(id, ROV.LEGAL_NAME, F.createLiteral(e.getValue(), e.getKey()));
+		}
+		for (Entry<String, String> e: org.getAbbrevs().entrySet()) {
+			m.add(id, SKOS.ALT_LABEL, F.createLiteral(e.getValue(), e.getKey()));
+		}
+		for (String act: org.getVatActivities()) {
+			m.add(id, ROV.ORG_ACTIVITY, F.createIRI(NACE_OLD_PREFIX + act.replace(".", "")));
+		}
+		for (String act: org.getNssOldActivities()) {
+			m.add(id, ROV.ORG_ACTIVITY, F.createIRI(NACE_OLD_PREFIX + act.replace(".", "")));
+		}
+		for (String act: org.getNssActivities()) {
+			m.add(id, ROV.ORG_ACTIVITY, F.createIRI(NACE_PREFIX + act.replace(".", "")));
+		}
+		m.add(id, FOAF.HOMEPAGE, F.createIRI(org.getWebsite()));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+		Rio.write(m, out, RDFFormat.NTRIPLES);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] streaming() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+		writer.write(org, out, RDFFormat.NTRIPLES);
+		return out.toByteArray();
+	}
+}
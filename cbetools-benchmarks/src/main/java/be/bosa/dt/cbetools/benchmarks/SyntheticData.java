@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Generates synthetic CSV rows and files, following the layout of the KBO open data files.
+ * The data is random but reproducible (fixed seed), so benchmarks can run offline.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class SyntheticData {
+	private final static String[] NAMES = { "Bakkerij De Zon", "Société Générale de Belgique", 
+		"Café \"De Hoek\"", "Ärztekammer Eupen", "Federale Overheidsdienst Beleid en Ondersteuning", 
+		"Brasserie L'Étoile", "Van den Broeck & Zonen" };
+	private final static String[][] MUNICIPALITIES = { { "1000", "Brussel", "Bruxelles" },
+		{ "9000", "Gent", "Gand" }, { "4000", "Luik", "Liège" }, { "1300", "Waver", "Wavre" },
+		{ "2000", "Antwerpen", "Anvers" }, { "8000", "Brugge", "Bruges" }, { "4700", "Eupen", "Eupen" } };
+	private final static String[][] STREETS = { { "Wetstraat", "Rue de la Loi" }, 
+		{ "Kerkstraat", "Kerkstraat" }, { "Grote Markt", "Grand-Place (Centre)" },
+		{ "Sint-Pietersnieuwstraat", "Sint-Pietersnieuwstraat" }, { "Boulevard d'Avroy", "Boulevard d'Avroy" },
+		{ "Simon Bolivarlaan", "Boulevard Simon Bolivar" } };
+	private final static String[] PHONES = { "02 123 45 67", "(0)3/123.45.67", "+32 9 123 45 67", "123" };
+	private final static String[] PAGES = { "www.example.be", "http://www.example.be", "Example.BE/info", 
+		"https//malformed.be", "ab" };
+	private final static String[] MAILS = { "info@example.be", "<sales@example.be>", "Info@Example.be", 
+		"not an address" };
+	private final static String[] NACE = { "62010", "47110", "84119", "86210", "56101", "4711" };
+	private final static String[] TYPES = { "014", "015", "610", "030", "416", "" };
+
+	private final Random rnd;
+
+	/**
+	 * Pick a random element from an array
+	 * 
+	 * @param arr array
+	 * @return element
+	 */
+	private <T> T pick(T[] arr) {
+		return arr[rnd.nextInt(arr.length)];
+	}
+
+	/**
+	 * Random date in DD-MM-YYYY format
+	 * 
+	 * @return date string
+	 */
+	public String date() {
+		return String.format("%02d-%02d-%04d", 1 + rnd.nextInt(28), 1 + rnd.nextInt(12), 1950 + rnd.nextInt(75));
+	}
+
+	/**
+	 * Random enterprise number, formatted as in the KBO files (e.g. 0123.456.789)
+	 * 
+	 * @return enterprise number
+	 */
+	public String enterpriseNumber() {
+		return String.format("0%03d.%03d.%03d", 200 + rnd.nextInt(800), rnd.nextInt(1000), rnd.nextInt(1000));
+	}
+
+	/**
+	 * Random establishment number, formatted as in the KBO files (e.g. 2.123.456.789)
+	 * 
+	 * @return establishment number
+	 */
+	public String establishmentNumber() {
+		return String.format("2.%03d.%03d.%03d", rnd.nextInt(1000), rnd.nextInt(1000), rnd.nextInt(1000));
+	}
+
+	/**
+	 * Random enterprise or establishment number
+	 * 
+	 * @return entity number
+	 */
+	public String entityNumber() {
+		return rnd.nextInt(4) == 0 ? establishmentNumber() : enterpriseNumber();
+	}
+
+	/**
+	 * Row of enterprise.csv
+	 * 
+	 * @return row
+	 */
+	public String[] enterprise() {
+		return new String[] { enterpriseNumber(), "AC", "000", "2", pick(TYPES), date() };
+	}
+
+	/**
+	 * Row of denomination.csv
+	 * 
+	 * @return row
+	 */
+	public String[] denomination() {
+		return new String[] { entityNumber(), String.valueOf(rnd.nextInt(5)), 
+			pick(new String[] { "001", "002", "003" }), pick(NAMES) };
+	}
+
+	/**
+	 * Row of establishment.csv
+	 * 
+	 * @return row
+	 */
+	public String[] establishment() {
+		return new String[] { establishmentNumber(), date(), enterpriseNumber() };
+	}
+
+	/**
+	 * Row of contact.csv
+	 * 
+	 * @return row
+	 */
+	public String[] contact() {
+		switch (rnd.nextInt(3)) {
+			case 0: return new String[] { entityNumber(), "ENT", "TEL", pick(PHONES) };
+			case 1: return new String[] { entityNumber(), "ENT", "WEB", pick(PAGES) };
+			default: return new String[] { entityNumber(), "ENT", "EMAIL", pick(MAILS) };
+		}
+	}
+
+	/**
+	 * Row of activity.csv
+	 * 
+	 * @return row
+	 */
+	public String[] activity() {
+		return new String[] { entityNumber(), "001", pick(new String[] { "2003", "2008", "2008", "2025" }), 
+			pick(NACE), "MAIN" };
+	}
+
+	/**
+	 * Row of address.csv
+	 * 
+	 * @return row
+	 */
+	public String[] address() {
+		String[] m = pick(MUNICIPALITIES);
+		String[] s = pick(STREETS);
+		boolean foreign = rnd.nextInt(50) == 0;
+		return new String[] { entityNumber(), "REGO", foreign ? "Frankrijk" : "", foreign ? "France" : "",
+			m[0], m[1], m[2], s[0], s[1], String.valueOf(1 + rnd.nextInt(250)), 
+			pick(new String[] { "", "", "", "A", "b 2" }), "", "" };
+	}
+
+	/**
+	 * Row of a BEST address file (only the columns used by the converter are filled in)
+	 * 
+	 * @return row
+	 */
+	public String[] best() {
+		String[] m = pick(MUNICIPALITIES);
+		String[] s = pick(STREETS);
+		String[] row = new String[21];
+		for (int i = 0; i < row.length; i++) {
+			row[i] = "";
+		}
+		row[2] = m[0];
+		row[3] = s[0];
+		row[4] = String.valueOf(1 + rnd.nextInt(250));
+		row[5] = pick(new String[] { "", "", "A" });
+		row[19] = String.format("%.5f", 2.5 + rnd.nextDouble() * 3.9).replace(',', '.');
+		row[20] = String.format("%.5f", 49.5 + rnd.nextDouble() * 2).replace(',', '.');
+		return row;
+	}
+
+	/**
+	 * Generate an array of rows
+	 * 
+	 * @param count number of rows
+	 * @param fun function generating a single row
+	 * @return array of rows
+	 */
+	public String[][] rows(int count, IntFunction<String[]> fun) {
+		String[][] rows = new String[count][];
+		for (int i = 0; i < count; i++) {
+			rows[i] = fun.apply(i);
+		}
+		return rows;
+	}
+
+	/**
+	 * Write rows as CSV, all values between double quotes (like the KBO files)
+	 * 
+	 * @param w writer
+	 * @param header header
+	 * @param count number of rows
+	 * @param fun function generating a single row
+	 * @throws IOException 
+	 */
+	private void write(Writer w, String[] header, int count, IntFunction<String[]> fun) throws IOException {
+		writeRow(w, header);
+		for (int i = 0; i < count; i++) {
+			writeRow(w, fun.apply(i));
+		}
+	}
+
+	/**
+	 * Write a single CSV row
+	 * 
+	 * @param w writer
+	 * @param row row
+	 * @throws IOException 
+	 */
+	private static void writeRow(Writer w, String[] row) throws IOException {
+		for (int i = 0; i < row.length; i++) {
+			if (i > 0) {
+				w.write(',');
+			}
+			w.write('"');
+			w.write(row[i].replace("\"", "\"\""));
+			w.write('"');
+		}
+		w.write('\n');
+	}
+
+	/**
+	 * Write a CSV file
+	 * 
+	 * @param dir directory
+	 * @param file file name
+	 * @param header header
+	 * @param count number of rows
+	 * @param fun function generating a single row
+	 * @throws IOException 
+	 */
+	public void writeFile(File dir, String file, String[] header, int count, 
+			IntFunction<String[]> fun) throws IOException {
+		try (BufferedWriter w = Files.newBufferedWriter(new File(dir, file).toPath(), StandardCharsets.UTF_8)) {
+			write(w, header, count, fun);
+		}
+	}
+
+	/**
+	 * Write a complete set of KBO-like CSV files (and BEST address files) to a directory
+	 * 
+	 * @param dir directory
+	 * @param count number of enterprises
+	 * @throws IOException 
+	 */
+	public void writeAll(File dir, int count) throws IOException {
+		writeFile(dir, "enterprise.csv", new String[] { "EnterpriseNumber", "Status", "JuridicalSituation",
+			"TypeOfEnterprise", "JuridicalForm", "StartDate" }, count, i -> enterprise());
+		writeFile(dir, "denomination.csv", new String[] { "EntityNumber", "Language", "TypeOfDenomination",
+			"Denomination" }, count * 2, i -> denomination());
+		writeFile(dir, "establishment.csv", new String[] { "EstablishmentNumber", "StartDate", 
+			"EnterpriseNumber" }, count / 2, i -> establishment());
+		writeFile(dir, "contact.csv", new String[] { "EntityNumber", "EntityContact", "ContactType", 
+			"Value" }, count / 2, i -> contact());
+		writeFile(dir, "activity.csv", new String[] { "EntityNumber", "ActivityGroup", "NaceVersion", 
+			"NaceCode", "Classification" }, count * 3, i -> activity());
+		writeFile(dir, "address.csv", new String[] { "EntityNumber", "TypeOfAddress", "CountryNL", 
+			"CountryFR", "Zipcode", "MunicipalityNL", "MunicipalityFR", "StreetNL", "StreetFR", 
+			"HouseNumber", "Box", "ExtraAddressInfo", "DateStrikingOff" }, count * 2, i -> address());
+		writeFile(dir, "code.csv", new String[] { "Category", "Code", "Language", "Description" }, 
+			NACE.length * 2, i -> new String[] { "Nace2008", NACE[i / 2], (i % 2 == 0) ? "NL" : "FR", 
+				NAMES[i % NAMES.length] });
+
+		String[] header = new String[21];
+		for (int i = 0; i < header.length; i++) {
+			header[i] = "column" + i;
+		}
+		for (String region: new String[] { "Brussels", "Flanders", "Wallonia" }) {
+			writeFile(dir, region + "_addresses.csv", header, count / 3, i -> best());
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param seed random seed
+	 */
+	public SyntheticData(long seed) {
+		this.rnd = new Random(seed);
+	}
+}
@@ -25,10 +25,8 @@
  */
 package be.bosa.dt.cbetools.common;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-
-import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -48,9 +46,7 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.model.vocabulary.ROV;
 import org.eclipse.rdf4j.model.vocabulary.SKOS;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
 
 /**
  * Converter class for CSV to RDF
@@ -59,23 +55,103 @@ import org.slf4j.LoggerFactory;
  */
 public class CBEConverter {
 
-	private final static Logger LOG = LoggerFactory.getLogger(CBEConverter.class);
+	// not final, can be replaced (e.g. by a caching factory) before the conversion starts
+	private static ValueFactory F = SimpleValueFactory.getInstance();
 
-	private final static ValueFactory F = SimpleValueFactory.getInstance();
+	public final static int DATE_CACHE_SIZE = 65_536;
 
-	private final static SimpleDateFormat SDF = new SimpleDateFormat("dd-MM-yyyy");
+	// date literals per DD-MM-YYYY string, there are only a few thousand distinct start dates
+	private final static Map<String, Literal> DATES = new ConcurrentHashMap<>();
+	private static int dateCacheSize = DATE_CACHE_SIZE;
 
 	public final static String ORG_BELGIF = "https://org.belgif.be";
 	
-	private final static String DOM_PREF_NACE8 = "http://vocab.belgif.be/auth/nace2008/";
-	private final static String DOM_PREF_NACE25 = "http://vocab.belgif.be/auth/nace2025/";
-	private final static String DOM_PREF_TYPE = "http://vocab.belgif.be/auth/orgtype/";
-	private final static String DOM_PREF_OC = "https://opencorporates.com/id/companies/be/";
+	final static String DOM_PREF_NACE8 = "http://vocab.belgif.be/auth/nace2008/";
+	final static String DOM_PREF_NACE25 = "http://vocab.belgif.be/auth/nace2025/";
+	final static String DOM_PREF_TYPE = "http://vocab.belgif.be/auth/orgtype/";
+	final static String DOM_PREF_OC = "https://opencorporates.com/id/companies/be/";
+
+	final static String PREFIX_ORG = "/id/CbeRegisteredEntity/";
+	final static String PREFIX_REG = "/id/cbe/registration/";
+	final static String PREFIX_SITE = "/id/CbeEstablishmentUnit/";
+	final static String PREFIX_ADDR = "/id/cbe/addr/";
+
+	// ASCII characters allowed as-is in an address ID, same as regular expression \w
+	private final static boolean[] WORD_CHARS = new boolean[128];
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			WORD_CHARS[c] = true;
+			WORD_CHARS[Character.toUpperCase(c)] = true;
+		}
+		for (char c = '0'; c <= '9'; c++) {
+			WORD_CHARS[c] = true;
+		}
+		WORD_CHARS['_'] = true;
+	}
 
-	private final static String PREFIX_ORG = "/id/CbeRegisteredEntity/";
-	private final static String PREFIX_REG = "/id/cbe/registration/";
-	private final static String PREFIX_SITE = "/id/CbeEstablishmentUnit/";
-	private final static String PREFIX_ADDR = "/id/cbe/addr/";
+	private final static ThreadLocal<StringBuilder> ADDR_BUILDER = 
+		ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+	// not final, can be replaced (e.g. by a sink writing the rejects to a file) before the conversion starts
+	private static RejectSink REJECTS = new RejectSink(RejectSink.LOG_INTERVAL);
+
+	/**
+	 * Set the sink for rejected values. Must be called before the conversion starts.
+	 * 
+	 * @param sink reject sink
+	 */
+	public static void setRejectSink(RejectSink sink) {
+		REJECTS = sink;
+	}
+
+	/**
+	 * Report a rejected (invalid) value
+	 * 
+	 * @param reason reason, e.g. type of value
+	 * @param value rejected value
+	 * @param row CSV row or null
+	 */
+	private static void reject(String reason, String value, String[] row) {
+		REJECTS.reject(reason, value, row);
+	}
+
+	/**
+	 * Get the number of rejected values so far, per reason
+	 * 
+	 * @return sorted map of reasons and counts
+	 */
+	public static Map<String, Long> getRejects() {
+		return REJECTS.counts();
+	}
+
+	/**
+	 * Set the value factory used to create IRIs, literals and statements.
+	 * Must be called before the conversion starts.
+	 * 
+	 * @param factory value factory
+	 */
+	public static void setValueFactory(ValueFactory factory) {
+		F = factory;
+	}
+
+	/**
+	 * Get the value factory used to create IRIs, literals and statements
+	 * 
+	 * @return value factory
+	 */
+	public static ValueFactory getValueFactory() {
+		return F;
+	}
+
+	/**
+	 * Get the type of ID (organization or site) based on the CBE number
+	 * 
+	 * @param cbe CBE number as string
+	 * @return organization or site prefix
+	 */
+	private static String typeOf(String cbe) {
+		return (cbe.startsWith("0") || cbe.startsWith("1")) ? PREFIX_ORG : PREFIX_SITE;
+	}
 
 	/**
 	 * Make unique ID for an organization or site
@@ -84,7 +160,7 @@ public class CBEConverter {
 	 * @return IRI
 	 */
 	public static IRI makeID(String cbe) {
-		return makeID((cbe.startsWith("0") || cbe.startsWith("1")) ? PREFIX_ORG : PREFIX_SITE, cbe);
+		return makeID(typeOf(cbe), cbe);
 	}
 
 	/**
@@ -95,10 +171,37 @@ public class CBEConverter {
 	 * @return IRI
 	 */
 	public static IRI makeID(String type, String cbe) {
-		return F.createIRI(new StringBuilder(ORG_BELGIF)
-			.append(type)
-			.append(cbe.replace(".", "").replace(" ", ""))
-			.toString());
+		return F.createIRI(appendID(new StringBuilder(64), type, cbe).toString());
+	}
+
+	/**
+	 * Append unique ID for an organization or site to a string builder
+	 *
+	 * @param s string builder
+	 * @param cbe CBE number as string
+	 * @return string builder
+	 */
+	public static StringBuilder appendID(StringBuilder s, String cbe) {
+		return appendID(s, typeOf(cbe), cbe);
+	}
+
+	/**
+	 * Append unique ID for an organization or site to a string builder
+	 *
+	 * @param s string builder
+	 * @param type organization or site
+	 * @param cbe CBE number as string
+	 * @return string builder
+	 */
+	public static StringBuilder appendID(StringBuilder s, String type, String cbe) {
+		s.append(ORG_BELGIF).append(type);
+		for (int i = 0; i < cbe.length(); i++) {
+			char c = cbe.charAt(i);
+			if (c != '.' && c != ' ') {
+				s.append(c);
+			}
+		}
+		return s;
 	}
 
 	/**
@@ -108,25 +211,52 @@ public class CBEConverter {
 	 * @return IRI
 	 */
 	public static IRI makeAddress(String... parts) {
-		StringBuilder s = new StringBuilder(ORG_BELGIF).append(PREFIX_ADDR);
-		String prevPart = "";
+		StringBuilder s = ADDR_BUILDER.get();
+		s.setLength(0);
+		return F.createIRI(appendAddress(s, parts).toString());
+	}
+
+	/**
+	 * Append unique ID for address from address parts to a string builder
+	 * 
+	 * @param s string builder
+	 * @param parts zipcode, street name, number... 
+	 * @return string builder
+	 */
+	public static StringBuilder appendAddress(StringBuilder s, String... parts) {
+		s.append(ORG_BELGIF).append(PREFIX_ADDR);
+		String prevPart = null;
+		int prevLen = 0;
+
 		for (String part: parts) {
-			if (part != null && !part.isEmpty()) {
-				int i = part.indexOf("(");
-				if (i > 0) {
-					part = part.substring(0, i);
-				}
-				if (!part.equals(prevPart)) {
-					prevPart = part;
-					s.append(part.replaceAll("\\W", "_")).append("_");
-				}
+			if (part == null || part.isEmpty()) {
+				continue;
 			}
+			// only use the part before the first "(", unless the part starts with "("
+			int len = part.indexOf('(');
+			if (len <= 0) {
+				len = part.length();
+			}
+			// skip if the same as the previous part
+			if (prevPart != null && len == prevLen && part.regionMatches(0, prevPart, 0, len)) {
+				continue;
+			}
+			prevPart = part;
+			prevLen = len;
+
+			// replace every non-word character (code point, not char) by an underscore
+			for (int i = 0; i < len; ) {
+				int cp = part.codePointAt(i);
+				s.append((cp < 128 && WORD_CHARS[cp]) ? (char) cp : '_');
+				i += Character.charCount(cp);
+			}
+			s.append('_');
 		}
 
-		s.deleteCharAt(s.length()-1);
-		return F.createIRI(s.toString());
+		s.setLength(s.length() - 1);
+		return s;
 	}
-	
+
 	/**
 	 * Make OpenCorporates.com ID
 	 *
@@ -145,8 +275,19 @@ public class CBEConverter {
 	 * @return IRI
 	 */
 	public static IRI makeOrgtype(String cbe) {
+		return makeOrgtype(cbe, null);
+	}
+
+	/**
+	 * Make organization type
+	 *
+	 * @param cbe CBE number as string
+	 * @param row CSV row containing the value, reported when the value is rejected
+	 * @return IRI
+	 */
+	public static IRI makeOrgtype(String cbe, String[] row) {
 		if (cbe == null || cbe.trim().isEmpty()) {
-			LOG.warn("Empty org type");
+			reject("orgtype", cbe, row);
 			return null;
 		}
 		return F.createIRI(new StringBuilder(DOM_PREF_TYPE)
@@ -154,17 +295,108 @@ public class CBEConverter {
 	}
 
 	/**
-	 * Convert DD-MM-YYYY date string to date object
+	 * Set the maximum number of date literals to keep in memory.
+	 * Must be called before the conversion starts.
+	 * 
+	 * @param size maximum number of dates, 0 disables the cache
+	 */
+	public static void setDateCacheSize(int size) {
+		dateCacheSize = size;
+		DATES.clear();
+	}
+
+	/**
+	 * Get the numeric value of a fixed number of ASCII digits
+	 * 
+	 * @param str string
+	 * @param start start position
+	 * @param len number of digits
+	 * @return value or -1 when a character is not a digit
+	 */
+	private static int digits(String str, int start, int len) {
+		int val = 0;
+		for (int i = start; i < start + len; i++) {
+			int d = str.charAt(i) - '0';
+			if (d < 0 || d > 9) {
+				return -1;
+			}
+			val = val * 10 + d;
+		}
+		return val;
+	}
+
+	/**
+	 * Get the number of days in a month
+	 * 
+	 * @param year year
+	 * @param month month (1-12)
+	 * @return number of days
+	 */
+	private static int daysInMonth(int year, int month) {
+		switch (month) {
+			case 2:
+				return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+			case 4: case 6: case 9: case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	/**
+	 * Convert DD-MM-YYYY date string to YYYY-MM-DD (xsd:date lexical form).
+	 * Unlike a lenient date parser, invalid days or months (e.g. 31-04-2000) are not rolled over.
 	 *
 	 * @param date date string in DD-MM-YYYY format
-	 * @return date object
+	 * @return date string in YYYY-MM-DD format or null when not a valid date
 	 */
-	public static Date asDate(String date) {
-		try {
-			return SDF.parse(date);
-		} catch (ParseException ex) {
+	public static String asDateLabel(String date) {
+		if (date == null || date.length() != 10 || date.charAt(2) != '-' || date.charAt(5) != '-') {
 			return null;
 		}
+		int day = digits(date, 0, 2);
+		int month = digits(date, 3, 2);
+		int year = digits(date, 6, 4);
+		if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+			return null;
+		}
+		char[] ymd = { date.charAt(6), date.charAt(7), date.charAt(8), date.charAt(9), '-', 
+						date.charAt(3), date.charAt(4), '-', date.charAt(0), date.charAt(1) };
+		return new String(ymd);
+	}
+
+	/**
+	 * Convert DD-MM-YYYY date string to xsd:date literal
+	 *
+	 * @param date date string in DD-MM-YYYY format
+	 * @return literal or null
+	 */
+	public static Literal asDateLiteral(String date) {
+		return asDateLiteral(date, null);
+	}
+
+	/**
+	 * Convert DD-MM-YYYY date string to xsd:date literal
+	 *
+	 * @param date date string in DD-MM-YYYY format
+	 * @param row CSV row containing the value, reported when the value is rejected
+	 * @return literal or null
+	 */
+	public static Literal asDateLiteral(String date, String[] row) {
+		Literal lit = (date != null) ? DATES.get(date) : null;
+		if (lit != null) {
+			return lit;
+		}
+		String label = asDateLabel(date);
+		if (label == null) {
+			reject("date", date, row);
+			return null;
+		}
+		lit = F.createLiteral(label, XSD.DATE);
+		if (DATES.size() < dateCacheSize) {
+			DATES.put(date, lit);
+		}
+		return lit;
 	}
 
 	/**
@@ -175,8 +407,20 @@ public class CBEConverter {
 	 * @return tel: IRI
 	 */
 	public static IRI asPhone(String phone) {
+		return asPhone(phone, null);
+	}
+
+	/**
+	 * Clean and convert phone number to tel: IRI. By default, the prefix
+	 * +32 (Belgium) will be added
+	 *
+	 * @param phone phone number
+	 * @param row CSV row containing the value, reported when the value is rejected
+	 * @return tel: IRI
+	 */
+	public static IRI asPhone(String phone, String[] row) {
 		if (phone == null || phone.trim().length() < 9) {
-			LOG.warn("Incorrect phone {}", phone);
+			reject("phone", phone, row);
 			return null;
 		}
 		String s = phone.trim().replace("(0)", "-")
@@ -192,31 +436,42 @@ public class CBEConverter {
 	 * @return http: IRI or null
 	 */
 	public static IRI asPage(String page) {
+		return asPage(page, null);
+	}
+
+	/**
+	 * Clean up and convert webpage to http: IRI.
+	 *
+	 * @param page web page
+	 * @param row CSV row containing the value, reported when the value is rejected
+	 * @return http: IRI or null
+	 */
+	public static IRI asPage(String page, String[] row) {
 		if (page == null || page.trim().length() < 5) {
-			LOG.warn("Incorrect URL {}", page);
+			reject("url", page, row);
 			return null;
 		}
 		// multiple pages 
 		String s = page.toLowerCase().trim().split(" ", 2)[0];
 		if (s.length() < 5) {
-			LOG.warn("Incorrect URL {}", s);
+			reject("url", page, row);
 			return null;
 		}
 
 		// check for malformed input
 		if (s.startsWith("http") || s.startsWith("https")) {
 			if (!(s.startsWith("http://") || s.startsWith("https://"))) {
-				LOG.warn("Incorrect URL {}", s);
+				reject("url", page, row);
 				return null;
 			}
 		} else if (s.startsWith("www:")) {
-			LOG.warn("Incorrect URL {}", s);
+			reject("url", page, row);
 			return null;
 		}
 		try { 
 			return F.createIRI(s.startsWith("http") ? s : "http://" + s);
 		} catch (IllegalArgumentException iae) {
-			LOG.warn("Incorrect URL {}", s);
+			reject("url", page, row);
 			return null;
 		}
 	}
@@ -245,14 +500,25 @@ public class CBEConverter {
 	 * @return mailto: IRI or null
 	 */
 	public static IRI asMail(String mail) {
+		return asMail(mail, null);
+	}
+
+	/**
+	 * Clean up and convert email address to mailto: IRI.
+	 *
+	 * @param mail email address
+	 * @param row CSV row containing the value, reported when the value is rejected
+	 * @return mailto: IRI or null
+	 */
+	public static IRI asMail(String mail, String[] row) {
 		if (mail == null || mail.trim().length() < 5) {
-			LOG.warn("Incorrect email {}", mail);
+			reject("email", mail, row);
 			return null;
 		}
 		// multiple mails
 		String s = mail.toLowerCase().trim().split(" ", 2)[0];
 		if (s.length() < 7 || !s.contains("@")) {
-			LOG.warn("Incorrect email", mail);
+			reject("email", mail, row);
 			return null;
 		}
 		// correct malformed input
@@ -267,12 +533,23 @@ public class CBEConverter {
 	 * @return language code or empty string
 	 */
 	public static String guessLang(String code) {
+		return guessLang(code, null);
+	}
+
+	/**
+	 * Guess languages based on zip code
+	 * 
+	 * @param code zip code
+	 * @param row CSV row containing the value, reported when the value is rejected
+	 * @return language code or empty string
+	 */
+	public static String guessLang(String code, String[] row) {
 		int i = 0;
 		
 		try {
 			i = Integer.parseInt(code);
 		} catch (NumberFormatException ioe) {
-			LOG.warn("Could not convert zip code {}", code);
+			reject("zipcode", code, row);
 		}
 
 		if (i < 1300) {
@@ -319,15 +596,17 @@ public class CBEConverter {
 	public final static Function<String[], Stream<Statement>> Org = row -> {
 		IRI subj = makeID(PREFIX_ORG, row[0]);
 		IRI reg = makeID(PREFIX_REG, row[0]);
-		IRI type = makeOrgtype(row[4]);
-		Date date = asDate(row[5]);
+		IRI type = makeOrgtype(row[4], row);
+		Literal date = asDateLiteral(row[5], row);
 
 		Stream.Builder<Statement> s = Stream.builder();
 		s.add(F.createStatement(subj, RDF.TYPE, ROV.REGISTERED_ORGANIZATION))
 			.add(F.createStatement(subj, ROV.REGISTRATION, reg))
-			.add(F.createStatement(subj, OWL.SAMEAS, makeOCID(row[0])))
-			.add(F.createStatement(reg, DCTERMS.ISSUED, F.createLiteral(date)));
+			.add(F.createStatement(subj, OWL.SAMEAS, makeOCID(row[0])));
 
+		if (date != null) {
+			s.add(F.createStatement(reg, DCTERMS.ISSUED, date));
+		}
 		if (type != null) {
 			s.add(F.createStatement(subj, ROV.ORG_TYPE, type));
 		}
@@ -339,14 +618,17 @@ public class CBEConverter {
 	 */
 	public final static Function<String[], Stream<Statement>> Sites = row -> {
 		IRI site = makeID(PREFIX_SITE, row[0]);
-		Date date = asDate(row[1]);
+		Literal date = asDateLiteral(row[1], row);
 		IRI org = makeID(PREFIX_ORG, row[2]);
 
 		Stream.Builder<Statement> s = Stream.builder();
 		s.add(F.createStatement(site, RDF.TYPE, ORG.SITE))
 			.add(F.createStatement(org, ORG.HAS_SITE, site))
-			.add(F.createStatement(site, ORG.SITE_OF, org))
-			.add(F.createStatement(site, DCTERMS.ISSUED, F.createLiteral(date)));
+			.add(F.createStatement(site, ORG.SITE_OF, org));
+
+		if (date != null) {
+			s.add(F.createStatement(site, DCTERMS.ISSUED, date));
+		}
 		return s.build();
 	};
 
@@ -362,7 +644,7 @@ public class CBEConverter {
 		
 		switch(row[0]) {
 			case "JuridicalForm":
-				subj = makeOrgtype(row[1]);
+				subj = makeOrgtype(row[1], row);
 
 				s.add(F.createStatement(subj, SKOS.PREF_LABEL, label));
 				if (lang.equals("nl")) { // only once
@@ -401,15 +683,15 @@ public class CBEConverter {
 		switch (row[2]) {
 			case "TEL" -> {
 				type = FOAF.PHONE;
-				contact = asPhone(row[3]);
+				contact = asPhone(row[3], row);
 			}
 			case "WEB" -> {
 				type = FOAF.HOMEPAGE;
-				contact = asPage(row[3]);
+				contact = asPage(row[3], row);
 			}
 			case "EMAIL" -> {
 				type = FOAF.MBOX;
-				contact = asMail(row[3]);
+				contact = asMail(row[3], row);
 			}
 		}
 		if (contact == null) {
@@ -438,7 +720,7 @@ public class CBEConverter {
 		}
 
 		// guess language for Belgian municipalities based on zip code
-		String guess = row[2].isEmpty() ? guessLang(row[4]) : "";
+		String guess = row[2].isEmpty() ? guessLang(row[4], row) : "";
 		// only output the municipality names and street names if the names are really different
 		if (!row[5].isEmpty() && (!row[5].equals(row[6]) || !guess.equals("fr"))) {
 			s.add(F.createStatement(addr, LOCN.POST_NAME, F.createLiteral(row[5], "nl")));
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import static be.bosa.dt.cbetools.common.CBEConverter.DOM_PREF_NACE25;
+import static be.bosa.dt.cbetools.common.CBEConverter.DOM_PREF_NACE8;
+import static be.bosa.dt.cbetools.common.CBEConverter.DOM_PREF_OC;
+import static be.bosa.dt.cbetools.common.CBEConverter.PREFIX_ORG;
+import static be.bosa.dt.cbetools.common.CBEConverter.PREFIX_REG;
+import static be.bosa.dt.cbetools.common.CBEConverter.PREFIX_SITE;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.GEO;
+import org.eclipse.rdf4j.model.vocabulary.LOCN;
+import org.eclipse.rdf4j.model.vocabulary.ORG;
+import org.eclipse.rdf4j.model.vocabulary.OWL;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.ROV;
+import org.eclipse.rdf4j.model.vocabulary.SKOS;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+
+/**
+ * Converter for CSV to N-Triples, writing directly into an N-Triples sink.
+ * Produces the same triples (in the same order) as the functions in {@link CBEConverter}, 
+ * but without creating RDF4J statements for each row.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CBEEmitter {
+
+	// pre-encoded predicates
+	private final static byte[] DCTERMS_ISSUED = NTriplesSink.encode(DCTERMS.ISSUED);
+	private final static byte[] FOAF_HOMEPAGE = NTriplesSink.encode(FOAF.HOMEPAGE);
+	private final static byte[] FOAF_MBOX = NTriplesSink.encode(FOAF.MBOX);
+	private final static byte[] FOAF_PHONE = NTriplesSink.encode(FOAF.PHONE);
+	private final static byte[] LOCN_ADDRESS_PROP = NTriplesSink.encode(LOCN.ADDRESS_PROP);
+	private final static byte[] LOCN_ADMIN_UNIT_L1 = NTriplesSink.encode(LOCN.ADMIN_UNIT_L1);
+	private final static byte[] LOCN_GEOMETRY_PROP = NTriplesSink.encode(LOCN.GEOMETRY_PROP);
+	private final static byte[] LOCN_LOCATOR_DESIGNATOR = NTriplesSink.encode(LOCN.LOCATOR_DESIGNATOR);
+	private final static byte[] LOCN_POST_CODE = NTriplesSink.encode(LOCN.POST_CODE);
+	private final static byte[] LOCN_POST_NAME = NTriplesSink.encode(LOCN.POST_NAME);
+	private final static byte[] LOCN_THOROUGHFARE = NTriplesSink.encode(LOCN.THOROUGHFARE);
+	private final static byte[] ORG_HAS_SITE = NTriplesSink.encode(ORG.HAS_SITE);
+	private final static byte[] ORG_SITE_OF = NTriplesSink.encode(ORG.SITE_OF);
+	private final static byte[] OWL_SAMEAS = NTriplesSink.encode(OWL.SAMEAS);
+	private final static byte[] RDF_TYPE = NTriplesSink.encode(RDF.TYPE);
+	private final static byte[] RDFS_LABEL = NTriplesSink.encode(RDFS.LABEL);
+	private final static byte[] ROV_LEGAL_NAME = NTriplesSink.encode(ROV.LEGAL_NAME);
+	private final static byte[] ROV_ORG_ACTIVITY = NTriplesSink.encode(ROV.ORG_ACTIVITY);
+	private final static byte[] ROV_ORG_TYPE = NTriplesSink.encode(ROV.ORG_TYPE);
+	private final static byte[] ROV_REGISTRATION = NTriplesSink.encode(ROV.REGISTRATION);
+	private final static byte[] SKOS_ALT_LABEL = NTriplesSink.encode(SKOS.ALT_LABEL);
+	private final static byte[] SKOS_BROADER = NTriplesSink.encode(SKOS.BROADER);
+	private final static byte[] SKOS_NOTATION = NTriplesSink.encode(SKOS.NOTATION);
+	private final static byte[] SKOS_PREF_LABEL = NTriplesSink.encode(SKOS.PREF_LABEL);
+
+	// pre-encoded classes and datatypes
+	private final static byte[] LOCN_ADDRESS = NTriplesSink.encode(LOCN.ADDRESS);
+	private final static byte[] ORG_SITE = NTriplesSink.encode(ORG.SITE);
+	private final static byte[] ROV_REGISTERED_ORGANIZATION = NTriplesSink.encode(ROV.REGISTERED_ORGANIZATION);
+	private final static byte[] SKOS_CONCEPT = NTriplesSink.encode(SKOS.CONCEPT);
+	private final static byte[] GEO_WKT_LITERAL = NTriplesSink.encode(GEO.WKT_LITERAL);
+	private final static byte[] XSD_DATE = NTriplesSink.encode(XSD.DATE);
+
+	/**
+	 * Reusable string builders, one set per thread
+	 */
+	private static class Scratch {
+		private final StringBuilder subj = new StringBuilder(64);
+		private final StringBuilder obj = new StringBuilder(128);
+		private final StringBuilder val = new StringBuilder(64);
+	}
+
+	private final static ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	/**
+	 * Clear string builder
+	 * 
+	 * @param s string builder
+	 * @return empty string builder
+	 */
+	private static StringBuilder clear(StringBuilder s) {
+		s.setLength(0);
+		return s;
+	}
+
+	/**
+	 * Get language code for CBE language number
+	 * 
+	 * @param code language number
+	 * @return language code or empty string
+	 */
+	private static String lang(String code) {
+		switch (code) {
+			case "1": return "fr";
+			case "2": return "nl";
+			case "3": return "de";
+			case "4": return "en";
+			default: return "";
+		}
+	}
+
+	/**
+	 * Organization names
+	 */
+	public final static RowEmitter Names = (row, out) -> {
+		StringBuilder subj = CBEConverter.appendID(clear(SCRATCH.get().subj), row[0]);
+		String lang = lang(row[1]);
+		boolean legal = row[2].equals("001");
+
+		out.literal(subj, legal ? ROV_LEGAL_NAME : SKOS_ALT_LABEL, row[3], lang);
+		// Add label for query / display purposes
+		if (legal || row[0].startsWith("2")) {
+			out.literal(subj, RDFS_LABEL, row[3], lang);
+		}
+	};
+
+	/**
+	 * Registration records
+	 */
+	public final static RowEmitter Org = (row, out) -> {
+		Scratch s = SCRATCH.get();
+		StringBuilder subj = CBEConverter.appendID(clear(s.subj), PREFIX_ORG, row[0]);
+		StringBuilder reg = CBEConverter.appendID(clear(s.obj), PREFIX_REG, row[0]);
+		IRI type = CBEConverter.makeOrgtype(row[4], row);
+		Literal date = CBEConverter.asDateLiteral(row[5], row);
+
+		out.iri(subj, RDF_TYPE, ROV_REGISTERED_ORGANIZATION);
+		out.iri(subj, ROV_REGISTRATION, reg);
+		out.iri(subj, OWL_SAMEAS, clear(s.val).append(DOM_PREF_OC).append(row[0].replace(".", "")));
+		if (date != null) {
+			out.typed(reg, DCTERMS_ISSUED, date.getLabel(), XSD_DATE);
+		}
+
+		if (type != null) {
+			out.iri(subj, ROV_ORG_TYPE, type.stringValue());
+		}
+	};
+
+	/**
+	 * Establishments
+	 */
+	public final static RowEmitter Sites = (row, out) -> {
+		Scratch s = SCRATCH.get();
+		StringBuilder site = CBEConverter.appendID(clear(s.subj), PREFIX_SITE, row[0]);
+		Literal date = CBEConverter.asDateLiteral(row[1], row);
+		StringBuilder org = CBEConverter.appendID(clear(s.obj), PREFIX_ORG, row[2]);
+
+		out.iri(site, RDF_TYPE, ORG_SITE);
+		out.iri(org, ORG_HAS_SITE, site);
+		out.iri(site, ORG_SITE_OF, org);
+		if (date != null) {
+			out.typed(site, DCTERMS_ISSUED, date.getLabel(), XSD_DATE);
+		}
+	};
+
+	/**
+	 * Codes (organization types and NACE codes)
+	 */
+	public final static RowEmitter Codes = (row, out) -> {
+		Scratch s = SCRATCH.get();
+		String lang = row[2].toLowerCase();
+
+		switch(row[0]) {
+			case "JuridicalForm":
+				String subj = CBEConverter.makeOrgtype(row[1], row).stringValue();
+				out.literal(subj, SKOS_PREF_LABEL, row[3], lang);
+				if (lang.equals("nl")) { // only once
+					out.iri(subj, RDF_TYPE, SKOS_CONCEPT);
+				}
+				break;
+			case "Nace2008":
+			case "Nace2025":
+				String nace = row[0].equals("Nace2008") ? DOM_PREF_NACE8 : DOM_PREF_NACE25;
+				StringBuilder code = clear(s.subj).append(nace).append(row[1]);
+				out.literal(code, SKOS_PREF_LABEL, row[3], lang);
+
+				if (lang.equals("nl")) { // only once
+					out.iri(code, RDF_TYPE, SKOS_CONCEPT);
+					out.literal(code, SKOS_NOTATION, row[1]);
+
+					String broader = CBEConverter.broaderNace(row[2]);
+					if (broader != null) {
+						out.iri(code, SKOS_BROADER, clear(s.obj).append(nace).append(broader));
+					}
+				}
+				break;
+		}
+	};
+
+	/**
+	 * Contacts (phone, website, email)
+	 */
+	public final static RowEmitter Contacts = (row, out) -> {
+		byte[] type = null;
+		IRI contact = null;
+
+		switch (row[2]) {
+			case "TEL" -> {
+				type = FOAF_PHONE;
+				contact = CBEConverter.asPhone(row[3], row);
+			}
+			case "WEB" -> {
+				type = FOAF_HOMEPAGE;
+				contact = CBEConverter.asPage(row[3], row);
+			}
+			case "EMAIL" -> {
+				type = FOAF_MBOX;
+				contact = CBEConverter.asMail(row[3], row);
+			}
+		}
+		if (contact != null) {
+			StringBuilder subj = CBEConverter.appendID(clear(SCRATCH.get().subj), row[0]);
+			out.iri(subj, type, contact.stringValue());
+		}
+	};
+
+	/**
+	 * Addresses
+	 */
+	public final static RowEmitter Addresses = (row, out) -> {
+		Scratch s = SCRATCH.get();
+		StringBuilder subj = CBEConverter.appendID(clear(s.subj), row[0]);
+		StringBuilder addr = CBEConverter.appendAddress(clear(s.obj), 
+									row[2], row[3], row[4], row[7], row[8], row[9], row[10]);
+
+		out.iri(subj, LOCN_ADDRESS_PROP, addr);
+		out.iri(addr, RDF_TYPE, LOCN_ADDRESS);
+		out.literal(addr, LOCN_ADMIN_UNIT_L1, row[2].isEmpty() ? "België" : row[2], "nl");
+		out.literal(addr, LOCN_ADMIN_UNIT_L1, row[3].isEmpty() ? "Belgique" : row[3], "fr");
+
+		if (!row[4].isEmpty()) {
+			out.literal(addr, LOCN_POST_CODE, row[4]);
+		}
+
+		// guess language for Belgian municipalities based on zip code
+		String guess = row[2].isEmpty() ? CBEConverter.guessLang(row[4], row) : "";
+		// only output the municipality names and street names if the names are really different
+		if (!row[5].isEmpty() && (!row[5].equals(row[6]) || !guess.equals("fr"))) {
+			out.literal(addr, LOCN_POST_NAME, row[5], "nl");
+		}
+		if (!row[6].isEmpty() && (!row[6].equals(row[5]) || !guess.equals("nl"))) {
+			out.literal(addr, LOCN_POST_NAME, row[6], "fr");
+		}
+		if (!row[7].isEmpty() && (!row[7].equals(row[8]) || !guess.equals("fr"))) {
+			out.literal(addr, LOCN_THOROUGHFARE, row[7], "nl");
+		}
+		if (!row[8].isEmpty() && (!row[8].equals(row[7]) || !guess.equals("nl"))) {
+			out.literal(addr, LOCN_THOROUGHFARE, row[8], "fr");
+		}
+		if (! row[9].isEmpty()) {
+			StringBuilder no = clear(s.val).append(row[9]);
+			if (!row[10].isEmpty()) {
+				no.append('/').append(row[10]);
+			}
+			out.literal(addr, LOCN_LOCATOR_DESIGNATOR, no);
+		}
+	};
+
+	/**
+	 * BEST address GPS positions
+	 */
+	public final static RowEmitter Best = (row, out) -> {
+		Scratch s = SCRATCH.get();
+		StringBuilder addr = CBEConverter.appendAddress(clear(s.obj), row[11], row[2], row[3], row[4], row[5]);
+		StringBuilder point = clear(s.val).append("POINT(").append(row[19]).append(' ').append(row[20]).append(')');
+		out.typed(addr, LOCN_GEOMETRY_PROP, point, GEO_WKT_LITERAL);
+	};
+
+	/**
+	 * Activities
+	 */
+	public final static RowEmitter Activities = (row, out) -> {
+		if (row[3].isEmpty() || !row[2].equals("2008")) {
+			// old
+			return;
+		}
+		Scratch s = SCRATCH.get();
+		StringBuilder subj = CBEConverter.appendID(clear(s.subj), row[0]);
+		out.iri(subj, ROV_ORG_ACTIVITY, clear(s.obj).append(DOM_PREF_NACE8).append(row[3]));
+	};
+}
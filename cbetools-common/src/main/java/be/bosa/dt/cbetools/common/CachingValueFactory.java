@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+/**
+ * Value factory reusing recently created IRIs and literals.
+ * 
+ * Values are kept in a number of small LRU caches, one per kind of value (IRIs, plain literals, 
+ * literals per language tag and per datatype), so no extra key objects have to be created for lookups.
+ * Each cache is split in segments to limit contention between conversion threads.
+ * Long strings (e.g. descriptions) are unlikely to be repeated and are never cached.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CachingValueFactory extends SimpleValueFactory {
+	private final static int SEGMENTS = 16;
+
+	private final int capacity;
+	private final int maxLength;
+
+	private final Lru<IRI> iris;
+	private final Lru<Literal> literals;
+	private final Map<String, Lru<Literal>> langLiterals = new ConcurrentHashMap<>();
+	private final Map<IRI, Lru<Literal>> typedLiterals = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+
+	/**
+	 * Segmented LRU cache, using strings as keys
+	 * 
+	 * @param <V> type of value
+	 */
+	private static class Lru<V> {
+		private final Segment<V>[] segments;
+
+		/**
+		 * Access-ordered hash map, removing the least recently used entry when full
+		 * 
+		 * @param <V> type of value
+		 */
+		private static class Segment<V> extends LinkedHashMap<String, V> {
+			private final int max;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > max;
+			}
+
+			Segment(int max) {
+				super(16, 0.75f, true);
+				this.max = max;
+			}
+		}
+
+		/**
+		 * Get segment for a key
+		 * 
+		 * @param key key
+		 * @return segment
+		 */
+		private Segment<V> segment(String key) {
+			int h = key.hashCode();
+			return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+		}
+
+		/**
+		 * Get value from the cache
+		 * 
+		 * @param key key
+		 * @return value or null
+		 */
+		V get(String key) {
+			Segment<V> s = segment(key);
+			synchronized (s) {
+				return s.get(key);
+			}
+		}
+
+		/**
+		 * Put value in the cache
+		 * 
+		 * @param key key
+		 * @param value value
+		 */
+		void put(String key, V value) {
+			Segment<V> s = segment(key);
+			synchronized (s) {
+				s.put(key, value);
+			}
+		}
+
+		/**
+		 * Get number of cached values
+		 * 
+		 * @return number of values
+		 */
+		int size() {
+			int size = 0;
+			for (Segment<V> s: segments) {
+				synchronized (s) {
+					size += s.size();
+				}
+			}
+			return size;
+		}
+
+		/**
+		 * Constructor
+		 * 
+		 * @param capacity maximum number of values
+		 */
+		@SuppressWarnings("unchecked")
+		Lru(int capacity) {
+			segments = new Segment[SEGMENTS];
+			for (int i = 0; i < SEGMENTS; i++) {
+				segments[i] = new Segment<>(Math.max(1, capacity / SEGMENTS));
+			}
+		}
+	}
+
+	/**
+	 * Check if a string can be cached, and count the lookup if it can't.
+	 * 
+	 * @param str string
+	 * @return true if string is short enough
+	 */
+	private boolean cacheable(String str) {
+		if (str.length() > maxLength) {
+			skipped.increment();
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public IRI createIRI(String iri) {
+		if (!cacheable(iri)) {
+			return super.createIRI(iri);
+		}
+		IRI val = iris.get(iri);
+		if (val != null) {
+			hits.increment();
+			return val;
+		}
+		misses.increment();
+		val = super.createIRI(iri);
+		iris.put(iri, val);
+		return val;
+	}
+
+	@Override
+	public Literal createLiteral(String label) {
+		if (!cacheable(label)) {
+			return super.createLiteral(label);
+		}
+		Literal val = literals.get(label);
+		if (val != null) {
+			hits.increment();
+			return val;
+		}
+		misses.increment();
+		val = super.createLiteral(label);
+		literals.put(label, val);
+		return val;
+	}
+
+	@Override
+	public Literal createLiteral(String label, String lang) {
+		if (!cacheable(label)) {
+			return super.createLiteral(label, lang);
+		}
+		Lru<Literal> cache = langLiterals.computeIfAbsent(lang, k -> new Lru<>(capacity));
+		Literal val = cache.get(label);
+		if (val != null) {
+			hits.increment();
+			return val;
+		}
+		misses.increment();
+		val = super.createLiteral(label, lang);
+		cache.put(label, val);
+		return val;
+	}
+
+	@Override
+	public Literal createLiteral(String label, IRI datatype) {
+		if (!cacheable(label)) {
+			return super.createLiteral(label, datatype);
+		}
+		Lru<Literal> cache = typedLiterals.computeIfAbsent(datatype, k -> new Lru<>(capacity));
+		Literal val = cache.get(label);
+		if (val != null) {
+			hits.increment();
+			return val;
+		}
+		misses.increment();
+		val = super.createLiteral(label, datatype);
+		cache.put(label, val);
+		return val;
+	}
+
+	/**
+	 * Get number of values found in the cache
+	 * 
+	 * @return number of hits
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Get number of values not found in the cache
+	 * 
+	 * @return number of misses
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Get number of values not cached because of their length
+	 * 
+	 * @return number of values
+	 */
+	public long skipped() {
+		return skipped.sum();
+	}
+
+	/**
+	 * Get number of values currently in the cache
+	 * 
+	 * @return number of values
+	 */
+	public int size() {
+		int size = iris.size() + literals.size();
+		for (Lru<Literal> cache: langLiterals.values()) {
+			size += cache.size();
+		}
+		for (Lru<Literal> cache: typedLiterals.values()) {
+			size += cache.size();
+		}
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		long h = hits();
+		long total = h + misses();
+		return String.format("hits = %d, misses = %d, skipped = %d, hit ratio = %.1f%%, size = %d", 
+			h, misses(), skipped(), (total > 0) ? 100.0 * h / total : 0.0, size());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param capacity maximum number of values per kind of value
+	 * @param maxLength maximum length of the string value to be cached
+	 */
+	public CachingValueFactory(int capacity, int maxLength) {
+		this.capacity = capacity;
+		this.maxLength = maxLength;
+		this.iris = new Lru<>(capacity);
+		this.literals = new Lru<>(capacity);
+	}
+}
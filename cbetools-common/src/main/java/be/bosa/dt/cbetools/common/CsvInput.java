@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Input CSV files, either from a directory or directly from a ZIP file (e.g. the monthly KBO download),
+ * without extracting the files to disk.
+ * 
+ * Files not found in the ZIP file (e.g. BEST address files) are read from the directory containing the ZIP.
+ * Multiple files can be read at the same time.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CsvInput implements AutoCloseable {
+	private final File dir;
+	private final ZipFile zip;
+	private final Map<String, ZipEntry> entries = new HashMap<>();
+
+	/**
+	 * Check if a CSV file is available
+	 * 
+	 * @param name file name, without path
+	 * @return true if file exists
+	 */
+	public boolean exists(String name) {
+		return entries.containsKey(name) || new File(dir, name).isFile();
+	}
+
+	/**
+	 * Open a CSV file for reading
+	 * 
+	 * @param name file name, without path
+	 * @return UTF-8 reader
+	 * @throws IOException when the file does not exist or can't be read
+	 */
+	public Reader open(String name) throws IOException {
+		ZipEntry entry = entries.get(name);
+		InputStream in;
+		if (entry != null) {
+			in = zip.getInputStream(entry);
+		} else {
+			File f = new File(dir, name);
+			if (!f.isFile()) {
+				throw new FileNotFoundException("File not found: " + name);
+			}
+			in = new FileInputStream(f);
+		}
+		return new InputStreamReader(in, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String toString() {
+		return (zip != null) ? zip.getName() : dir.toString();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (zip != null) {
+			zip.close();
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param path directory or ZIP file
+	 * @throws IOException when ZIP file can't be opened
+	 */
+	public CsvInput(File path) throws IOException {
+		if (path.isFile() && path.getName().toLowerCase().endsWith(".zip")) {
+			zip = new ZipFile(path, StandardCharsets.UTF_8);
+			dir = path.getAbsoluteFile().getParentFile();
+
+			Enumeration<? extends ZipEntry> en = zip.entries();
+			while (en.hasMoreElements()) {
+				ZipEntry entry = en.nextElement();
+				if (!entry.isDirectory()) {
+					String name = entry.getName();
+					entries.put(name.substring(name.lastIndexOf('/') + 1), entry);
+				}
+			}
+		} else {
+			zip = null;
+			dir = path;
+		}
+	}
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Arrays;
+
+import org.eclipse.rdf4j.model.IRI;
+
+/**
+ * Writes N-Triples directly into a reusable UTF-8 byte buffer, without creating 
+ * intermediate RDF4J values and statements.
+ * 
+ * Predicates, constant objects and datatypes are passed as pre-encoded bytes (see {@link #encode(IRI)}),
+ * other terms as character sequences. 
+ * Escaping follows the RDF4J N-Triples writer (with default settings), so the output is the same.
+ * 
+ * Not thread-safe: use one sink per thread.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class NTriplesSink {
+	private final static byte[] HEX = "0123456789ABCDEF".getBytes();
+	
+	private byte[] buf;
+	private int pos = 0;
+	private long triples = 0;
+
+	/**
+	 * Encode an IRI (including angle brackets) as UTF-8 bytes
+	 * 
+	 * @param iri IRI
+	 * @return bytes
+	 */
+	public static byte[] encode(IRI iri) {
+		NTriplesSink s = new NTriplesSink(iri.stringValue().length() * 3 + 2);
+		s.iri(iri.stringValue());
+		// remove trailing space
+		return Arrays.copyOf(s.buf, s.pos - 1);
+	}
+
+	/**
+	 * Add triple with an IRI as object
+	 * 
+	 * @param subj subject IRI
+	 * @param pred pre-encoded predicate
+	 * @param obj object IRI
+	 */
+	public void iri(CharSequence subj, byte[] pred, CharSequence obj) {
+		iri(subj);
+		put(pred);
+		iri(obj);
+		end();
+	}
+
+	/**
+	 * Add triple with a pre-encoded IRI as object
+	 * 
+	 * @param subj subject IRI
+	 * @param pred pre-encoded predicate
+	 * @param obj pre-encoded object
+	 */
+	public void iri(CharSequence subj, byte[] pred, byte[] obj) {
+		iri(subj);
+		put(pred);
+		put(obj);
+		end();
+	}
+
+	/**
+	 * Add triple with a plain (xsd:string) literal as object
+	 * 
+	 * @param subj subject IRI
+	 * @param pred pre-encoded predicate
+	 * @param label literal value
+	 */
+	public void literal(CharSequence subj, byte[] pred, CharSequence label) {
+		iri(subj);
+		put(pred);
+		label(label);
+		end();
+	}
+
+	/**
+	 * Add triple with a language-tagged literal as object.
+	 * An empty language results in a plain literal
+	 * 
+	 * @param subj subject IRI
+	 * @param pred pre-encoded predicate
+	 * @param label literal value
+	 * @param lang language code
+	 */
+	public void literal(CharSequence subj, byte[] pred, CharSequence label, String lang) {
+		iri(subj);
+		put(pred);
+		label(label);
+		if (lang != null && !lang.isEmpty()) {
+			put((byte) '@');
+			ascii(lang);
+		}
+		end();
+	}
+
+	/**
+	 * Add triple with a typed literal as object.
+	 * 
+	 * @param subj subject IRI
+	 * @param pred pre-encoded predicate
+	 * @param label literal value
+	 * @param datatype pre-encoded datatype
+	 */
+	public void typed(CharSequence subj, byte[] pred, CharSequence label, byte[] datatype) {
+		iri(subj);
+		put(pred);
+		label(label);
+		put((byte) '^');
+		put((byte) '^');
+		put(datatype);
+		end();
+	}
+
+	/**
+	 * Number of triples written since the last reset
+	 * 
+	 * @return number of triples
+	 */
+	public long count() {
+		return triples;
+	}
+
+	/**
+	 * Number of bytes in the buffer
+	 * 
+	 * @return number of bytes
+	 */
+	public int size() {
+		return pos;
+	}
+
+	/**
+	 * Clear the buffer, keeping the allocated memory
+	 */
+	public void reset() {
+		pos = 0;
+		triples = 0;
+	}
+
+	/**
+	 * Write the contents of the buffer to an output stream
+	 * 
+	 * @param out output stream
+	 * @throws IOException 
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(buf, 0, pos);
+	}
+
+	/**
+	 * Get the partition of a subject IRI, based on a hash of the last segment of the IRI.
+	 * For the CBE IRIs, this is the enterprise or establishment number, so e.g. an organization and 
+	 * its registration end up in the same partition.
+	 *
+	 * @param iri subject IRI
+	 * @param partitions number of partitions
+	 * @return partition number
+	 */
+	public static int partition(CharSequence iri, int partitions) {
+		int start = iri.length();
+		while (start > 0 && iri.charAt(start - 1) != '/') {
+			start--;
+		}
+		int hash = 0;
+		for (int i = start; i < iri.length(); i++) {
+			hash = 31 * hash + iri.charAt(i);
+		}
+		return (hash & Integer.MAX_VALUE) % partitions;
+	}
+
+	/**
+	 * Get the partition of the triple starting at a position in the buffer.
+	 * Same as {@link #partition(CharSequence, int)} for ASCII IRIs.
+	 * 
+	 * @param start start of the triple
+	 * @param partitions number of partitions
+	 * @return partition number
+	 */
+	private int partition(int start, int partitions) {
+		int end = start;
+		while (buf[end] != '>') {
+			end++;
+		}
+		int i = end;
+		while (buf[i - 1] != '/' && buf[i - 1] != '<') {
+			i--;
+		}
+		int hash = 0;
+		for (; i < end; i++) {
+			hash = 31 * hash + buf[i];
+		}
+		return (hash & Integer.MAX_VALUE) % partitions;
+	}
+
+	/**
+	 * Get the end of the triple starting at a position in the buffer
+	 * 
+	 * @param start start of the triple
+	 * @return position after the newline
+	 */
+	private int endOf(int start) {
+		int i = start;
+		while (buf[i] != '\n') {
+			i++;
+		}
+		return i + 1;
+	}
+
+	/**
+	 * Write each triple in the buffer to one of several output streams, based on the subject 
+	 * (see {@link #partition(CharSequence, int)}).
+	 *
+	 * @param outs output streams
+	 * @throws IOException
+	 */
+	public void writePartitioned(OutputStream[] outs) throws IOException {
+		int start = 0;
+		while (start < pos) {
+			int end = endOf(start);
+			outs[partition(start, outs.length)].write(buf, start, end - start);
+			start = end;
+		}
+	}
+
+	/**
+	 * Copy each triple in the buffer to one of several other sinks, based on the subject 
+	 * (see {@link #partition(CharSequence, int)}).
+	 *
+	 * @param parts sinks
+	 */
+	public void copyPartitioned(NTriplesSink[] parts) {
+		int start = 0;
+		while (start < pos) {
+			int end = endOf(start);
+			NTriplesSink part = parts[partition(start, parts.length)];
+			part.ensure(end - start);
+			System.arraycopy(buf, start, part.buf, part.pos, end - start);
+			part.pos += end - start;
+			part.triples++;
+			start = end;
+		}
+	}
+
+	/**
+	 * Copy of the contents of the buffer
+	 * 
+	 * @return byte array
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buf, pos);
+	}
+
+	/**
+	 * Write IRI between angle brackets, followed by a space
+	 * 
+	 * @param s IRI
+	 */
+	private void iri(CharSequence s) {
+		ensure(s.length() * 3 + 3);
+		buf[pos++] = '<';
+		int len = s.length();
+		for (int i = 0; i < len; i++) {
+			char c = s.charAt(i);
+			if (c <= 0x20 || c == '<' || c == '>' || c == '"' || c == '{' || c == '}' 
+					|| c == '|' || c == '^' || c == '`' || c == '\\' || (c >= 0x7F && c <= 0x9F)) {
+				percent(c);
+			} else {
+				utf8(c, s, i);
+				if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+					i++;
+				}
+			}
+		}
+		buf[pos++] = '>';
+		buf[pos++] = ' ';
+	}
+
+	/**
+	 * Write escaped literal value between double quotes
+	 * 
+	 * @param s literal value
+	 */
+	private void label(CharSequence s) {
+		int len = s.length();
+		ensure(len * 3 + 2);
+		buf[pos++] = '"';
+		for (int i = 0; i < len; i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '\\': buf[pos++] = '\\'; buf[pos++] = '\\'; break;
+				case '"': buf[pos++] = '\\'; buf[pos++] = '"'; break;
+				case '\n': buf[pos++] = '\\'; buf[pos++] = 'n'; break;
+				case '\r': buf[pos++] = '\\'; buf[pos++] = 'r'; break;
+				case '\t': buf[pos++] = '\\'; buf[pos++] = 't'; break;
+				default:
+					utf8(c, s, i);
+					if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+						i++;
+					}
+			}
+		}
+		buf[pos++] = '"';
+	}
+
+	/**
+	 * Write character as UTF-8, combining surrogate pairs
+	 * 
+	 * @param c character
+	 * @param s character sequence
+	 * @param i index of the character
+	 */
+	private void utf8(char c, CharSequence s, int i) {
+		if (c < 0x80) {
+			buf[pos++] = (byte) c;
+		} else if (c < 0x800) {
+			buf[pos++] = (byte) (0xC0 | (c >> 6));
+			buf[pos++] = (byte) (0x80 | (c & 0x3F));
+		} else if (Character.isSurrogate(c)) {
+			int cp = (Character.isHighSurrogate(c) && i + 1 < s.length()
+						&& Character.isLowSurrogate(s.charAt(i + 1)))
+					? Character.toCodePoint(c, s.charAt(i + 1)) : -1;
+			if (cp < 0) {
+				// lone surrogate, cannot be encoded
+				buf[pos++] = '?';
+			} else {
+				buf[pos++] = (byte) (0xF0 | (cp >> 18));
+				buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+			}
+		} else {
+			buf[pos++] = (byte) (0xE0 | (c >> 12));
+			buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			buf[pos++] = (byte) (0x80 | (c & 0x3F));
+		}
+	}
+
+	/**
+	 * Percent-encode a character in an IRI, without leading zero (like RDF4J does)
+	 * 
+	 * @param c character
+	 */
+	private void percent(char c) {
+		buf[pos++] = '%';
+		if (c > 0xF) {
+			buf[pos++] = HEX[(c >> 4) & 0xF];
+		}
+		buf[pos++] = HEX[c & 0xF];
+	}
+
+	/**
+	 * Write ASCII string
+	 * 
+	 * @param s string
+	 */
+	private void ascii(String s) {
+		int len = s.length();
+		ensure(len);
+		for (int i = 0; i < len; i++) {
+			buf[pos++] = (byte) s.charAt(i);
+		}
+	}
+
+	/**
+	 * Write bytes
+	 * 
+	 * @param b bytes 
+	 */
+	private void put(byte[] b) {
+		ensure(b.length + 1);
+		System.arraycopy(b, 0, buf, pos, b.length);
+		pos += b.length;
+		buf[pos++] = ' ';
+	}
+
+	/**
+	 * Write a single byte
+	 * 
+	 * @param b byte 
+	 */
+	private void put(byte b) {
+		ensure(1);
+		buf[pos++] = b;
+	}
+
+	/**
+	 * End of triple
+	 */
+	private void end() {
+		ensure(3);
+		if (buf[pos - 1] != ' ') {
+			buf[pos++] = ' ';
+		}
+		buf[pos++] = '.';
+		buf[pos++] = '\n';
+		triples++;
+	}
+
+	/**
+	 * Make sure the buffer can hold a number of additional bytes
+	 * 
+	 * @param len number of bytes
+	 */
+	private void ensure(int len) {
+		if (pos + len > buf.length) {
+			buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + len));
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param capacity initial capacity in bytes
+	 */
+	public NTriplesSink(int capacity) {
+		buf = new byte[capacity];
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal parser for optional command line parameters in the form --name=value
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class Options {
+	private final Map<String,String> opts = new HashMap<>();
+
+	/**
+	 * Get value of an option as string
+	 *
+	 * @param name name of the option, without leading dashes
+	 * @param def default value
+	 * @return value or default value
+	 */
+	public String get(String name, String def) {
+		return opts.getOrDefault(name, def);
+	}
+
+	/**
+	 * Get value of an option as integer
+	 *
+	 * @param name name of the option, without leading dashes
+	 * @param def default value
+	 * @return value or default value
+	 */
+	public int getInt(String name, int def) {
+		String val = opts.get(name);
+		if (val == null) {
+			return def;
+		}
+		try {
+			return Integer.parseInt(val);
+		} catch (NumberFormatException nfe) {
+			throw new IllegalArgumentException("Option --" + name + " is not a number: " + val);
+		}
+	}
+
+	/**
+	 * Check if an option (or flag without value) was set
+	 *
+	 * @param name name of the option, without leading dashes
+	 * @return true if set
+	 */
+	public boolean has(String name) {
+		return opts.containsKey(name);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param args command line arguments
+	 * @param start index of the first optional parameter
+	 */
+	public Options(String[] args, int start) {
+		for (int i = start; i < args.length; i++) {
+			String arg = args[i];
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("Unknown parameter " + arg);
+			}
+			int eq = arg.indexOf('=');
+			if (eq > 0) {
+				opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+			} else {
+				opts.put(arg.substring(2), "");
+			}
+		}
+	}
+}
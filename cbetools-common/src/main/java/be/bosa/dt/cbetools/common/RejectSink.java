@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects rejected (invalid) values, e.g. malformed phone numbers or URLs.
+ * 
+ * Rejects are counted per reason, and only logged once per interval per reason, 
+ * instead of logging every single value.
+ * Optionally the rejected values and the CSV rows they were found in are written to a CSV file
+ * by a separate thread, so the conversion threads don't have to wait for disk I/O.
+ * When that thread fails, rejecting a value throws an exception instead of waiting forever.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class RejectSink implements AutoCloseable {
+	private final static Logger LOG = LoggerFactory.getLogger(RejectSink.class);
+
+	// default minimum time between two log lines for the same reason, in milliseconds
+	public final static long LOG_INTERVAL = 10_000L;
+
+	private final static int QUEUE_SIZE = 64 * 1024;
+	private final static String[] END = new String[0];
+	private final static String[] HEADER = { "reason", "value", "row" };
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final long interval;
+	private final BlockingQueue<String[]> queue;
+	private final ICSVWriter csv;
+	private final Thread writer;
+	private volatile IOException error;
+
+	/**
+	 * Number of rejects for one reason, and when to log the next one
+	 */
+	private static class Counter {
+		private final LongAdder count = new LongAdder();
+		private final AtomicLong nextLog = new AtomicLong();
+	}
+
+	/**
+	 * Reject a value, optionally with the CSV row containing the value
+	 * 
+	 * @param reason reason code, e.g. "phone" 
+	 * @param value rejected value
+	 * @param row CSV row or null
+	 */
+	public void reject(String reason, String value, String[] row) {
+		Counter c = counters.computeIfAbsent(reason, k -> new Counter());
+		c.count.increment();
+
+		long now = System.currentTimeMillis();
+		long next = c.nextLog.get();
+		if (now >= next && c.nextLog.compareAndSet(next, now + interval)) {
+			LOG.warn("Rejected {} '{}' ({} rejected so far)", reason, value, c.count.sum());
+		}
+
+		if (queue != null) {
+			int len = (row != null) ? row.length : 0;
+			String[] line = new String[len + 2];
+			line[0] = reason;
+			line[1] = value;
+			if (len > 0) {
+				System.arraycopy(row, 0, line, 2, len);
+			}
+			checkWriter();
+			try {
+				while (!queue.offer(line, 1, TimeUnit.SECONDS)) {
+					checkWriter();
+				}
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Check if the writer thread is still running
+	 * 
+	 * @throws IllegalStateException if the writer failed or stopped
+	 */
+	private void checkWriter() {
+		if (error != null) {
+			throw new IllegalStateException("Could not write rejects", error);
+		}
+		if (!writer.isAlive()) {
+			throw new IllegalStateException("Rejects writer stopped");
+		}
+	}
+
+	/**
+	 * Get number of rejects per reason
+	 * 
+	 * @return sorted map of reasons and counts
+	 */
+	public Map<String, Long> counts() {
+		Map<String, Long> map = new TreeMap<>();
+		counters.forEach((k, v) -> map.put(k, v.count.sum()));
+		return map;
+	}
+
+	/**
+	 * Write a header and the queued rejects to the CSV file, until the end marker is found
+	 */
+	private void write() {
+		try {
+			csv.writeNext(HEADER, false);
+			String[] line;
+			while ((line = queue.take()) != END) {
+				csv.writeNext(line, false);
+			}
+			csv.flush();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			error = new IOException("Interrupted while writing rejects", ie);
+			queue.clear();
+		} catch (IOException | RuntimeException e) {
+			LOG.error("Could not write rejects", e);
+			error = (e instanceof IOException) ? (IOException) e : new IOException(e);
+			queue.clear();
+		}
+	}
+
+	/**
+	 * Wait until all rejects are written, and close the CSV file
+	 * 
+	 * @throws IOException 
+	 */
+	@Override
+	public void close() throws IOException {
+		if (writer == null) {
+			return;
+		}
+		try {
+			while (writer.isAlive() && !queue.offer(END, 1, TimeUnit.SECONDS)) {
+				// writer is still busy
+			}
+			writer.join();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing rejects", ie);
+		} finally {
+			csv.close();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Constructor, only counts and logs the rejects
+	 * 
+	 * @param interval minimum time between two log lines for the same reason, in milliseconds
+	 */
+	public RejectSink(long interval) {
+		this(interval, null);
+	}
+
+	/**
+	 * Constructor, writes rejects as CSV (reason, value, CSV row) to a writer, using a separate thread
+	 * 
+	 * @param interval minimum time between two log lines for the same reason, in milliseconds
+	 * @param out writer or null
+	 */
+	public RejectSink(long interval, Writer out) {
+		this.interval = interval;
+		if (out != null) {
+			this.queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+			this.csv = new CSVWriter(out);
+			this.writer = new Thread(this::write, "rejects");
+			this.writer.setDaemon(true);
+			this.writer.start();
+		} else {
+			this.queue = null;
+			this.csv = null;
+			this.writer = null;
+		}
+	}
+}
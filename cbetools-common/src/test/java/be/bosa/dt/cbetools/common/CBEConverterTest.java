@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests comparing the address ID builder and the date parser with the original implementations
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CBEConverterTest {
+	private final static String[] SAMPLES = { "", "(", ")", "((", "a(b", "(a)b", "-", " ", "_", "Rue", "Straat",
+		"1000", "12A", "Brussel", "Bruxelles", "Liège", "Sint-Niklaas", "Rue de l'Église", "B-1000",
+		"Avenue Louise (Bruxelles)", "Ørsted", "Müller", "日本", "😀", "\uD83D", "\uDE00", " " };
+
+	private final static char[] CHARS = { 'a', 'Z', '0', '9', '_', ' ', '-', '(', ')', '/', '\'', '.', ',', 
+		'é', 'ß', 'Ø', ' ', '\u0000', '\u007F', '日', '\uD83D', '\uDE00' };
+
+	/**
+	 * Original implementation, using regular expressions
+	 *
+	 * @param parts address parts
+	 * @return address ID as string
+	 */
+	private static String reference(String... parts) {
+		StringBuilder s = new StringBuilder(CBEConverter.ORG_BELGIF).append(CBEConverter.PREFIX_ADDR);
+		String prevPart = "";
+		for (String part: parts) {
+			if (part != null && !part.isEmpty()) {
+				int i = part.indexOf("(");
+				if (i > 0) {
+					part = part.substring(0, i);
+				}
+				if (!part.equals(prevPart)) {
+					prevPart = part;
+					s.append(part.replaceAll("\\W", "_")).append("_");
+				}
+			}
+		}
+		s.deleteCharAt(s.length()-1);
+		return s.toString();
+	}
+
+	/**
+	 * Generate a random address part, either a known sample or a random sequence of characters
+	 *
+	 * @param rnd random generator
+	 * @param prev previous part, to generate duplicates
+	 * @return string or null
+	 */
+	private static String part(Random rnd, String prev) {
+		int r = rnd.nextInt(10);
+		if (r == 0) {
+			return null;
+		}
+		if (r == 1 && prev != null) {
+			return rnd.nextBoolean() ? prev : prev + "(" + rnd.nextInt(10) + ")";
+		}
+		if (r < 5) {
+			return SAMPLES[rnd.nextInt(SAMPLES.length)];
+		}
+		StringBuilder s = new StringBuilder();
+		for (int i = rnd.nextInt(12); i > 0; i--) {
+			s.append(rnd.nextInt(4) == 0 ? CHARS[rnd.nextInt(CHARS.length)] : (char) rnd.nextInt(0x3000));
+		}
+		return s.toString();
+	}
+
+	@Test
+	public void testMakeAddressSamples() {
+		assertEquals(reference("1000", "Brussel", "Wetstraat", "16"), 
+				CBEConverter.makeAddress("1000", "Brussel", "Wetstraat", "16").stringValue());
+		assertEquals(reference("Rue (A)", "Rue", "Rue(B)", "(C)", "(C)", "", null), 
+				CBEConverter.makeAddress("Rue (A)", "Rue", "Rue(B)", "(C)", "(C)", "", null).stringValue());
+		assertEquals(reference("", null), CBEConverter.makeAddress("", null).stringValue());
+	}
+
+	@Test
+	public void testMakeAddressRandom() {
+		Random rnd = new Random(42);
+		for (int i = 0; i < 500_000; i++) {
+			String[] parts = new String[1 + rnd.nextInt(7)];
+			for (int j = 0; j < parts.length; j++) {
+				parts[j] = part(rnd, j > 0 ? parts[j - 1] : null);
+			}
+			assertEquals(reference(parts), CBEConverter.makeAddress(parts).stringValue(), 
+				() -> "Parts: " + Arrays.toString(parts));
+		}
+	}
+
+	@Test
+	public void testDateEquivalence() throws ParseException {
+		SimpleDateFormat in = new SimpleDateFormat("dd-MM-yyyy");
+		SimpleDateFormat out = new SimpleDateFormat("yyyy-MM-dd");
+		DateTimeFormatter fmt = DateTimeFormatter.ofPattern("dd-MM-uuuu");
+
+		for (LocalDate d = LocalDate.of(1800, 1, 1); d.getYear() < 2100; d = d.plusDays(1)) {
+			String str = d.format(fmt);
+			assertEquals(out.format(in.parse(str)), CBEConverter.asDateLabel(str), str);
+		}
+	}
+
+	@Test
+	public void testDateInvalid() {
+		String[] invalid = { null, "", "1-1-2020", "01-01-20", "01/01/2020", "01-01-2020 ", "aa-bb-cccc",
+			"00-01-2020", "32-01-2020", "01-00-2020", "01-13-2020", "31-04-2020", "29-02-2019", "29-02-1900",
+			"-1-01-2020", "01-01-+020" };
+		for (String str: invalid) {
+			assertNull(CBEConverter.asDateLabel(str), str);
+			assertNull(CBEConverter.asDateLiteral(str), str);
+		}
+		assertEquals("2000-02-29", CBEConverter.asDateLabel("29-02-2000"));
+	}
+
+	@Test
+	public void testDateLiteral() {
+		Literal lit = CBEConverter.asDateLiteral("04-07-1959");
+		assertEquals("1959-07-04", lit.getLabel());
+		assertEquals(XSD.DATE, lit.getDatatype());
+		assertSame(lit, CBEConverter.asDateLiteral("04-07-1959"));
+	}
+}
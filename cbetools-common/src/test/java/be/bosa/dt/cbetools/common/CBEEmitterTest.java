@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests comparing the N-Triples emitted directly with the output of the RDF4J writer
+ * for the statements of the converter.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CBEEmitterTest {
+	private final static String[] TEXTS = { "Plain", "Quote \" inside", "Back\\slash", "New\nline", 
+		"Tab\tand\rreturn", "Bell\u0007", "Liège", "Müller & Zoon", "Ørsted", "日本", "😀 emoji", "" };
+
+	/**
+	 * Write the statements of the converter function with the RDF4J N-Triples writer
+	 *
+	 * @param fun converter function
+	 * @param rows CSV rows
+	 * @return N-Triples as bytes
+	 */
+	private static byte[] reference(Function<String[], Stream<Statement>> fun, List<String[]> rows) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		RDFWriter w = Rio.createWriter(RDFFormat.NTRIPLES, out);
+		w.startRDF();
+		rows.stream().flatMap(fun).forEach(w::handleStatement);
+		w.endRDF();
+		return out.toByteArray();
+	}
+
+	/**
+	 * Write the N-Triples of the emitter
+	 *
+	 * @param fun emitter
+	 * @param rows CSV rows
+	 * @return N-Triples as bytes
+	 * @throws IOException
+	 */
+	private static byte[] emit(RowEmitter fun, List<String[]> rows) throws IOException {
+		NTriplesSink sink = new NTriplesSink(64);
+		for (String[] row: rows) {
+			fun.emit(row, sink);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		sink.writeTo(out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Compare emitter and converter byte for byte
+	 *
+	 * @param fun converter function
+	 * @param emitter emitter
+	 * @param rows CSV rows
+	 * @throws IOException
+	 */
+	private static void compare(Function<String[], Stream<Statement>> fun, RowEmitter emitter, 
+			String[]... rows) throws IOException {
+		byte[] expected = reference(fun, Arrays.asList(rows));
+		byte[] actual = emit(emitter, Arrays.asList(rows));
+		assertTrue(expected.length > 0);
+		assertArrayEquals(expected, actual, () -> "Expected:\n" + new String(expected, StandardCharsets.UTF_8)
+			+ "Actual:\n" + new String(actual, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testNames() throws IOException {
+		for (String text: TEXTS) {
+			compare(CBEConverter.Names, CBEEmitter.Names,
+				new String[] { "0200.065.765", "1", "001", text },
+				new String[] { "0200.065.765", "2", "002", text },
+				new String[] { "2.000.000.001", "3", "003", text },
+				new String[] { "2.000.000.001", "4", "001", text },
+				new String[] { "0200.065.765", "0", "002", text },
+				new String[] { "0200.065.765", "", "001", text });
+		}
+	}
+
+	@Test
+	public void testOrg() throws IOException {
+		compare(CBEConverter.Org, CBEEmitter.Org,
+			new String[] { "0200.065.765", "AC", "000", "2", "416", "09-08-1960" },
+			new String[] { "0200.068.636", "AC", "000", "2", "", "29-02-2000" },
+			new String[] { "0200.171.970", "AC", "000", "1", "014", "31-02-2000" },
+			new String[] { "0201.310.929", "AC", "000", "2", "417", "" });
+	}
+
+	@Test
+	public void testSites() throws IOException {
+		compare(CBEConverter.Sites, CBEEmitter.Sites,
+			new String[] { "2.000.000.339", "01-10-1978", "0403.449.823" },
+			new String[] { "2.000.000.543", "not a date", "0403.449.823" });
+	}
+
+	@Test
+	public void testCodes() throws IOException {
+		for (String text: TEXTS) {
+			compare(CBEConverter.Codes, CBEEmitter.Codes,
+				new String[] { "JuridicalForm", "014", "NL", text },
+				new String[] { "JuridicalForm", "014", "FR", text },
+				new String[] { "Nace2008", "01110", "NL", text },
+				new String[] { "Nace2008", "01110", "DE", text },
+				new String[] { "Nace2025", "0111", "NL", text },
+				new String[] { "Status", "AC", "NL", text });
+		}
+	}
+
+	@Test
+	public void testContacts() throws IOException {
+		compare(CBEConverter.Contacts, CBEEmitter.Contacts,
+			new String[] { "0200.065.765", "ENT", "TEL", "02 123 45 67" },
+			new String[] { "0200.065.765", "ENT", "WEB", "www.example.be" },
+			new String[] { "2.000.000.339", "EST", "EMAIL", "info@example.be" },
+			new String[] { "0200.065.765", "ENT", "FAX", "02 123 45 68" },
+			new String[] { "0200.065.765", "ENT", "EMAIL", "no mail" });
+	}
+
+	@Test
+	public void testAddresses() throws IOException {
+		compare(CBEConverter.Addresses, CBEEmitter.Addresses,
+			new String[] { "0200.065.765", "REGO", "", "", "1000", "Brussel", "Bruxelles", 
+				"Wetstraat", "Rue de la Loi", "16", "", "", "" },
+			new String[] { "0200.065.765", "REGO", "", "", "4000", "Liège", "Liège", 
+				"Rue de l'Église", "Rue de l'Église", "1", "b\"2", "", "" },
+			new String[] { "2.000.000.339", "BAET", "Duitsland", "Allemagne", "", "Köln", "Köln", 
+				"Domstraße", "Domstraße", "", "", "", "" },
+			new String[] { "2.000.000.339", "BAET", "", "", "9000", "Gent", "Gand", 
+				"Korenmarkt (centrum)", "", "7", "", "", "" });
+	}
+
+	@Test
+	public void testBest() throws IOException {
+		String[] row = new String[21];
+		Arrays.fill(row, "");
+		row[2] = "Wetstraat";
+		row[3] = "16";
+		row[4] = "";
+		row[5] = "1000";
+		row[11] = "Brussel";
+		row[19] = "4.3668";
+		row[20] = "50.8465";
+		compare(CBEConverter.Best, CBEEmitter.Best, row);
+	}
+
+	@Test
+	public void testActivities() throws IOException {
+		compare(CBEConverter.Activities, CBEEmitter.Activities,
+			new String[] { "0200.065.765", "RSZ", "2008", "84130", "MAIN" },
+			new String[] { "0200.065.765", "RSZ", "2003", "75130", "MAIN" },
+			new String[] { "2.000.000.339", "BTW", "2008", "", "SECO" });
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the caching value factory
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CachingValueFactoryTest {
+	@Test
+	public void testReuse() {
+		CachingValueFactory f = new CachingValueFactory(1000, 64);
+
+		IRI iri = f.createIRI("http://vocab.belgif.be/auth/nace2008/01110");
+		assertSame(f.createIRI("http://vocab.belgif.be/auth/nace2008/01110"), f.createIRI(iri.stringValue()));
+
+		Literal nl = f.createLiteral("België", "nl");
+		assertSame(nl, f.createLiteral("België", "nl"));
+		assertNotSame(nl, f.createLiteral("België", "fr"));
+		assertNotSame(nl, f.createLiteral("België"));
+		assertEquals("nl", f.createLiteral("België", "nl").getLanguage().get());
+
+		Literal typed = f.createLiteral("2020-01-01", XSD.DATE);
+		assertSame(typed, f.createLiteral("2020-01-01", XSD.DATE));
+		assertEquals(XSD.DATE, typed.getDatatype());
+
+		assertEquals(5, f.hits());
+		assertEquals(5, f.misses());
+	}
+
+	@Test
+	public void testLimits() {
+		CachingValueFactory f = new CachingValueFactory(160, 32);
+
+		String label = "A very long label, longer than 32 characters";
+		assertNotSame(f.createLiteral(label), f.createLiteral(label));
+		assertEquals(2, f.skipped());
+
+		for (int i = 0; i < 10_000; i++) {
+			f.createLiteral("label " + i);
+		}
+		assertTrue(f.size() <= 160);
+	}
+}
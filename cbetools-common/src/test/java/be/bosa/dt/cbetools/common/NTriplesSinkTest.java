@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for partitioning N-Triples by subject
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class NTriplesSinkTest {
+	private final static byte[] PRED = "<http://example.com/p>".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	public void testCopyPartitioned() {
+		String[] subjects = { "https://org.belgif.be/id/CbeRegisteredEntity/0200051479",
+			"https://org.belgif.be/id/cbe/registration/0200051479", 
+			"https://org.belgif.be/id/CbeEstablishmentUnit/2000052113",
+			"https://org.belgif.be/id/cbe/addr/1300_Rue_de_l__glise_Kerkstraat_116",
+			"http://vocab.belgif.be/auth/nace2008/4711", "urn:x" };
+
+		NTriplesSink sink = new NTriplesSink(16);
+		for (String subj: subjects) {
+			sink.literal(subj, PRED, "value\nwith newline", "nl");
+		}
+		NTriplesSink[] parts = new NTriplesSink[7];
+		for (int i = 0; i < parts.length; i++) {
+			parts[i] = new NTriplesSink(16);
+		}
+		sink.copyPartitioned(parts);
+
+		for (String subj: subjects) {
+			String part = new String(parts[NTriplesSink.partition(subj, parts.length)].toByteArray(), 
+										StandardCharsets.UTF_8);
+			assertTrue(part.contains("<" + subj + ">"), subj);
+		}
+		long total = 0;
+		for (NTriplesSink part: parts) {
+			total += part.count();
+		}
+		assertEquals(subjects.length, total);
+		assertEquals(NTriplesSink.partition(subjects[0], 7), NTriplesSink.partition(subjects[1], 7));
+	}
+}
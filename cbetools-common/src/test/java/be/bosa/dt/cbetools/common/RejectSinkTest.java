@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.common;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the reject sink
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class RejectSinkTest {
+	@Test
+	public void testRejects() throws Exception {
+		StringWriter w = new StringWriter();
+		try (RejectSink sink = new RejectSink(RejectSink.LOG_INTERVAL, w)) {
+			sink.reject("phone", "123", new String[] { "0200.065.765", "ENT", "TEL", "123" });
+			sink.reject("phone", "456", null);
+			sink.reject("url", "http:/", new String[] { "0200.065.765", "ENT", "WEB", "http:/" });
+		}
+		assertEquals("reason,value,row\nphone,123,0200.065.765,ENT,TEL,123\nphone,456\nurl,http:/,0200.065.765,ENT,WEB,http:/\n", 
+			w.toString());
+	}
+
+	@Test
+	public void testCounts() throws Exception {
+		try (RejectSink sink = new RejectSink(RejectSink.LOG_INTERVAL)) {
+			for (int i = 0; i < 1000; i++) {
+				sink.reject((i % 4 == 0) ? "email" : "phone", String.valueOf(i), null);
+			}
+			assertEquals(Map.of("email", 250L, "phone", 750L), sink.counts());
+		}
+	}
+
+	@Test
+	public void testFailedWriter() throws Exception {
+		Writer broken = new Writer() {
+			@Override
+			public void write(char[] buf, int off, int len) {
+				throw new IllegalStateException("disk full");
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		RejectSink sink = new RejectSink(RejectSink.LOG_INTERVAL, broken);
+		// rejecting must not block once the writer is gone
+		assertThrows(IllegalStateException.class, () -> {
+			for (int i = 0; i < 1_000_000; i++) {
+				sink.reject("phone", String.valueOf(i), null);
+			}
+		});
+		assertThrows(IOException.class, sink::close);
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.IOException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes batches (e.g. lists of statements), produced by one or more conversion threads, 
+ * to a single output using a separate writer thread.
+ * Batches may still be in the process of being converted when they are queued,
+ * the writer waits for each batch in the order they were queued.
+ * The number of pending batches is bounded, so fast producers are blocked 
+ * when the writer can't keep up.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ * @param <T> type of batch
+ */
+class BatchWriter<T> implements Consumer<Future<T>>, AutoCloseable {
+	private final static Logger LOG = LoggerFactory.getLogger(BatchWriter.class);
+
+	private final Future<T> end = CompletableFuture.completedFuture(null);
+
+	private final BlockingQueue<Future<T>> queue;
+	private final Consumer<T> out;
+	private final Runnable onEnd;
+	private final RunMetrics.Stats stats;
+	private final Thread writer;
+	private volatile Exception error;
+
+	/**
+	 * Create a batch writer for lists of statements.
+	 * The RDF handler must already be started (e.g. with namespace prefixes), it is ended when closing.
+	 * 
+	 * @param rdf started RDF handler
+	 * @param size maximum number of pending batches
+	 * @param name name of the writer thread
+	 * @param stats metrics for the output
+	 * @return batch writer
+	 */
+	public static BatchWriter<List<Statement>> forRDF(RDFHandler rdf, int size, String name, 
+			RunMetrics.Stats stats) {
+		return new BatchWriter<>(batch -> batch.forEach(rdf::handleStatement), rdf::endRDF, size, name, stats);
+	}
+
+	/**
+	 * Take batches from the queue and write them, until the end marker is found
+	 */
+	private void write() {
+		try {
+			Future<T> batch;
+			while ((batch = queue.take()) != end) {
+				T b = batch.get();
+				long start = System.nanoTime();
+				out.accept(b);
+				stats.write(System.nanoTime() - start);
+			}
+			onEnd.run();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			error = ie;
+		} catch (Exception e) {
+			LOG.error("Writer failed", e);
+			error = e;
+			queue.clear();
+		}
+	}
+
+	/**
+	 * Put a (future) batch in the queue, wait if the queue is full.
+	 *
+	 * @param batch batch
+	 */
+	@Override
+	public void accept(Future<T> batch) {
+		try {
+			while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+				if (error != null) {
+					throw new IllegalStateException("Writer failed", error);
+				}
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while queueing batch", ie);
+		}
+	}
+
+	/**
+	 * Signal the end of the input and wait until all batches are written
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			while (writer.isAlive() && !queue.offer(end, 1, TimeUnit.SECONDS)) {
+				// writer is still busy
+			}
+			writer.join();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for writer", ie);
+		}
+		if (error != null) {
+			throw new IOException("Writer failed", error);
+		}
+	}
+
+	/**
+	 * Constructor, starts the writer thread.
+	 *
+	 * @param out writes a single batch
+	 * @param onEnd called when all batches are written
+	 * @param size maximum number of pending batches
+	 * @param name name of the writer thread
+	 * @param stats metrics for the output
+	 */
+	public BatchWriter(Consumer<T> out, Runnable onEnd, int size, String name, RunMetrics.Stats stats) {
+		this.out = out;
+		this.onEnd = onEnd;
+		this.stats = stats;
+		this.queue = new ArrayBlockingQueue<>(size);
+		this.writer = new Thread(this::write, name);
+		this.writer.start();
+	}
+}
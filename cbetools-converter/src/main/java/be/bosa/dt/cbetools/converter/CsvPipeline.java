@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import be.bosa.dt.cbetools.common.CsvBulkReader;
+import be.bosa.dt.cbetools.common.NTriplesSink;
+import be.bosa.dt.cbetools.common.RowEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single-threaded conversion of a CSV file, reading a number of lines at once.
+ * Used by the converter and by the benchmarks.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public final class CsvPipeline {
+	private final static Logger LOG = LoggerFactory.getLogger(CsvPipeline.class);
+
+	/**
+	 * Generate RDF triples from CSV file
+	 *
+	 * @param rdf RDF writer
+	 * @param csv CSV containing data
+	 * @param fun function generating RDF triples
+	 * @param lines number of lines in a batch
+	 * @throws IOException
+	 */
+	public static void toRDF(RDFHandler rdf, Reader csv,
+		Function<String[], Stream<Statement>> fun, int lines) throws IOException {
+		toRDF(rdf, csv, fun, lines, new RunMetrics.Stats());
+	}
+
+	/**
+	 * Generate RDF triples from CSV file, recording metrics
+	 *
+	 * @param rdf RDF writer
+	 * @param csv CSV containing data
+	 * @param fun function generating RDF triples
+	 * @param lines number of lines in a batch
+	 * @param stats metrics for this file
+	 * @throws IOException
+	 */
+	static void toRDF(RDFHandler rdf, Reader csv,
+		Function<String[], Stream<Statement>> fun, int lines, RunMetrics.Stats stats) throws IOException {
+
+		try (CsvBulkReader r = new CsvBulkReader(csv)) {
+			while (r.hasNext()) {
+				long t0 = System.nanoTime();
+				List<String[]> rows = r.readNext(lines);
+				long t1 = System.nanoTime();
+				List<Statement> statements = rows.stream().flatMap(fun).collect(Collectors.toList());
+				long t2 = System.nanoTime();
+				statements.forEach(rdf::handleStatement);
+				long t3 = System.nanoTime();
+
+				stats.read(rows.size(), t1 - t0);
+				stats.convert(statements.size(), t2 - t1);
+				stats.write(t3 - t2);
+				LOG.debug("Reading lines");
+			}
+		}
+	}
+
+	/**
+	 * Write N-Triples directly from CSV file
+	 *
+	 * @param out output stream
+	 * @param sink reusable N-Triples buffer
+	 * @param csv CSV containing data
+	 * @param fun function writing N-Triples
+	 * @param lines number of lines in a batch
+	 * @throws IOException
+	 */
+	public static void toNTriples(OutputStream out, NTriplesSink sink, Reader csv, 
+		RowEmitter fun, int lines) throws IOException {
+		toNTriples(out, sink, csv, fun, lines, new RunMetrics.Stats());
+	}
+
+	/**
+	 * Write N-Triples directly from CSV file, recording metrics
+	 *
+	 * @param out output stream
+	 * @param sink reusable N-Triples buffer
+	 * @param csv CSV containing data
+	 * @param fun function writing N-Triples
+	 * @param lines number of lines in a batch
+	 * @param stats metrics for this file
+	 * @throws IOException
+	 */
+	static void toNTriples(OutputStream out, NTriplesSink sink, Reader csv, 
+		RowEmitter fun, int lines, RunMetrics.Stats stats) throws IOException {
+
+		try (CsvBulkReader r = new CsvBulkReader(csv)) {
+			while (r.hasNext()) {
+				long t0 = System.nanoTime();
+				List<String[]> rows = r.readNext(lines);
+				long t1 = System.nanoTime();
+				for (String[] row: rows) {
+					fun.emit(row, sink);
+				}
+				long t2 = System.nanoTime();
+				sink.writeTo(out);
+				long t3 = System.nanoTime();
+
+				stats.read(rows.size(), t1 - t0);
+				stats.convert(sink.count(), t2 - t1);
+				stats.write(t3 - t2);
+				sink.reset();
+				LOG.debug("Reading lines");
+			}
+		}
+	}
+
+	private CsvPipeline() {
+	}
+}
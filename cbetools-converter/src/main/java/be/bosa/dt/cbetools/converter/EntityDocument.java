@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import be.bosa.dt.cbetools.common.CBEConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.LOCN;
+import org.eclipse.rdf4j.model.vocabulary.ORG;
+import org.eclipse.rdf4j.model.vocabulary.ROV;
+import org.eclipse.rdf4j.model.vocabulary.SKOS;
+
+/**
+ * Compact JSON document for one enterprise or establishment, e.g. for indexing by a search engine.
+ * The document is built from the statements generated by the CBEConverter mapping,
+ * so it contains the same (cleaned) values as the RDF output.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+class EntityDocument {
+	// language key for names without language
+	private final static String NO_LANG = "und";
+
+	private final StringBuilder sb = new StringBuilder(1024);
+	private final Map<Resource, List<Statement>> subjects = new LinkedHashMap<>();
+
+	/**
+	 * Escape a string and add it between double quotes
+	 * 
+	 * @param s string
+	 */
+	private void quote(String s) {
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20) {
+				sb.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+			} else {
+				sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	/**
+	 * Add the name of a field, preceded by a comma unless it is the first field of an object
+	 * 
+	 * @param name field name
+	 */
+	private void name(String name) {
+		char last = sb.charAt(sb.length() - 1);
+		if (last != '{') {
+			sb.append(',');
+		}
+		quote(name);
+		sb.append(':');
+	}
+
+	/**
+	 * Get the distinct objects of a property
+	 * 
+	 * @param subj subject
+	 * @param pred property
+	 * @return objects, possibly empty
+	 */
+	private Collection<Value> values(Resource subj, IRI pred) {
+		Set<Value> values = new LinkedHashSet<>();
+		for (Statement st: subjects.getOrDefault(subj, List.of())) {
+			if (st.getPredicate().equals(pred)) {
+				values.add(st.getObject());
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Add a string field, if the property has a value
+	 * 
+	 * @param name field name
+	 * @param subj subject
+	 * @param pred property
+	 */
+	private void string(String name, Resource subj, IRI pred) {
+		Collection<Value> values = values(subj, pred);
+		if (!values.isEmpty()) {
+			name(name);
+			quote(values.iterator().next().stringValue());
+		}
+	}
+
+	/**
+	 * Add an array of strings, if the property has values
+	 * 
+	 * @param name field name
+	 * @param subj subject
+	 * @param pred property
+	 */
+	private void array(String name, Resource subj, IRI pred) {
+		Collection<Value> values = values(subj, pred);
+		if (!values.isEmpty()) {
+			name(name);
+			sb.append('[');
+			int i = 0;
+			for (Value v: values) {
+				if (i++ > 0) {
+					sb.append(',');
+				}
+				quote(v.stringValue());
+			}
+			sb.append(']');
+		}
+	}
+
+	/**
+	 * Add an object with an array of values per language, if the property has values
+	 * 
+	 * @param name field name
+	 * @param subj subject
+	 * @param pred property
+	 */
+	private void languages(String name, Resource subj, IRI pred) {
+		Map<String, List<String>> langs = new TreeMap<>();
+		for (Value v: values(subj, pred)) {
+			String lang = ((Literal) v).getLanguage().orElse(NO_LANG);
+			langs.computeIfAbsent(lang, k -> new ArrayList<>()).add(v.stringValue());
+		}
+		if (langs.isEmpty()) {
+			return;
+		}
+		name(name);
+		sb.append('{');
+		for (Map.Entry<String, List<String>> e: langs.entrySet()) {
+			name(e.getKey());
+			sb.append('[');
+			for (int i = 0; i < e.getValue().size(); i++) {
+				if (i > 0) {
+					sb.append(',');
+				}
+				quote(e.getValue().get(i));
+			}
+			sb.append(']');
+		}
+		sb.append('}');
+	}
+
+	/**
+	 * Add the addresses
+	 * 
+	 * @param subj subject
+	 */
+	private void addresses(Resource subj) {
+		Collection<Value> addrs = values(subj, LOCN.ADDRESS_PROP);
+		if (addrs.isEmpty()) {
+			return;
+		}
+		name("addresses");
+		sb.append('[');
+		int i = 0;
+		for (Value v: addrs) {
+			Resource addr = (Resource) v;
+			if (i++ > 0) {
+				sb.append(',');
+			}
+			sb.append('{');
+			name("iri");
+			quote(addr.stringValue());
+			languages("country", addr, LOCN.ADMIN_UNIT_L1);
+			string("postCode", addr, LOCN.POST_CODE);
+			languages("municipality", addr, LOCN.POST_NAME);
+			languages("street", addr, LOCN.THOROUGHFARE);
+			string("number", addr, LOCN.LOCATOR_DESIGNATOR);
+			sb.append('}');
+		}
+		sb.append(']');
+	}
+
+	/**
+	 * Add a statement
+	 * 
+	 * @param st statement
+	 */
+	public void add(Statement st) {
+		subjects.computeIfAbsent(st.getSubject(), k -> new ArrayList<>()).add(st);
+	}
+
+	/**
+	 * Build the JSON document and reset the statements, so the document can be reused
+	 * 
+	 * @param id enterprise or establishment number
+	 * @return JSON document on a single line
+	 */
+	public String toJson(String id) {
+		IRI subj = CBEConverter.makeID(id);
+		boolean site = id.startsWith("2");
+
+		sb.setLength(0);
+		sb.append('{');
+		name("id");
+		quote(id);
+		name("type");
+		quote(site ? "establishment" : "enterprise");
+		name("iri");
+		quote(subj.stringValue());
+
+		languages("legalName", subj, ROV.LEGAL_NAME);
+		languages("altName", subj, SKOS.ALT_LABEL);
+		string("orgType", subj, ROV.ORG_TYPE);
+		if (site) {
+			string("startDate", subj, DCTERMS.ISSUED);
+			string("enterprise", subj, ORG.SITE_OF);
+		} else {
+			Collection<Value> regs = values(subj, ROV.REGISTRATION);
+			if (!regs.isEmpty()) {
+				string("startDate", (Resource) regs.iterator().next(), DCTERMS.ISSUED);
+			}
+		}
+		array("nace", subj, ROV.ORG_ACTIVITY);
+		array("phone", subj, FOAF.PHONE);
+		array("email", subj, FOAF.MBOX);
+		array("website", subj, FOAF.HOMEPAGE);
+		addresses(subj);
+		array("sites", subj, ORG.HAS_SITE);
+		sb.append('}');
+
+		subjects.clear();
+		return sb.toString();
+	}
+}
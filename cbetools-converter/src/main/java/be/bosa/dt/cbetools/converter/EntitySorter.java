@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sorts CSV rows from multiple files by entity (enterprise or establishment) number,
+ * using a fixed memory budget.
+ * 
+ * Rows are collected in memory until the (estimated) budget is reached, and then written as 
+ * a sorted run to a temporary file. The runs are merged with a k-way merge, 
+ * rows with the same key are passed as one group.
+ * Rows with the same key are kept in the order of the source files, and in input order.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+class EntitySorter implements AutoCloseable {
+	private final static Logger LOG = LoggerFactory.getLogger(EntitySorter.class);
+
+	private final static int BUFFER_SIZE = 256 * 1024;
+
+	private final static Comparator<Row> ORDER = 
+		Comparator.<Row, String>comparing(r -> r.key).thenComparingInt(r -> r.source);
+
+	private final File tmpdir;
+	private final long budget;
+	private final List<File> runs = new ArrayList<>();
+
+	private List<Row> rows = new ArrayList<>();
+	private long used = 0;
+
+	/**
+	 * CSV row with sort key and source file
+	 */
+	static class Row {
+		final String key;
+		final int source;
+		final String[] values;
+
+		/**
+		 * Estimated size on the heap, in bytes
+		 * 
+		 * @return number of bytes
+		 */
+		long size() {
+			long size = 64 + 40 + key.length() * 2L + values.length * 8L;
+			for (String v: values) {
+				size += 40 + v.length() * 2L;
+			}
+			return size;
+		}
+
+		/**
+		 * Constructor
+		 * 
+		 * @param key sort key
+		 * @param source index of the source file
+		 * @param values CSV values
+		 */
+		Row(String key, int source, String[] values) {
+			this.key = key;
+			this.source = source;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Sorted run read from a temporary file
+	 */
+	private static class Run implements Iterator<Row>, AutoCloseable {
+		private final DataInputStream in;
+		private final int nr;
+		private Row next;
+
+		/**
+		 * Read the next row from the file
+		 * 
+		 * @return row or null at the end of the file
+		 * @throws IOException 
+		 */
+		private Row read() throws IOException {
+			String key;
+			try {
+				key = in.readUTF();
+			} catch (EOFException eof) {
+				return null;
+			}
+			int source = in.readUnsignedByte();
+			String[] values = new String[in.readUnsignedShort()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = in.readUTF();
+			}
+			return new Row(key, source, values);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Row next() {
+			Row row = next;
+			try {
+				next = read();
+			} catch (IOException ioe) {
+				throw new IllegalStateException("Could not read sorted run", ioe);
+			}
+			return row;
+		}
+
+		/**
+		 * Peek at the current row, without advancing
+		 * 
+		 * @return row
+		 */
+		Row peek() {
+			return next;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+		/**
+		 * Constructor
+		 * 
+		 * @param f temporary file
+		 * @param nr sequence number of the run, used to keep the input order
+		 * @throws IOException 
+		 */
+		Run(File f, int nr) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(f), BUFFER_SIZE));
+			this.nr = nr;
+			this.next = read();
+		}
+	}
+
+	/**
+	 * Add a row
+	 * 
+	 * @param key sort key (entity number)
+	 * @param source index of the source file, 0 - 255
+	 * @param values CSV values
+	 * @throws IOException 
+	 */
+	public void add(String key, int source, String[] values) throws IOException {
+		Row row = new Row(key, source, values);
+		rows.add(row);
+		used += row.size();
+		if (used >= budget) {
+			spill();
+		}
+	}
+
+	/**
+	 * Sort the rows in memory and write them to a temporary file
+	 * 
+	 * @throws IOException 
+	 */
+	private void spill() throws IOException {
+		rows.sort(ORDER);
+		File f = File.createTempFile("cbe-sort", ".run", tmpdir);
+		runs.add(f);
+		LOG.info("Writing {} rows to sorted run {}", rows.size(), f);
+
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(f), BUFFER_SIZE))) {
+			for (Row row: rows) {
+				out.writeUTF(row.key);
+				out.writeByte(row.source);
+				out.writeShort(row.values.length);
+				for (String v: row.values) {
+					out.writeUTF(v);
+				}
+			}
+		}
+		rows = new ArrayList<>();
+		used = 0;
+	}
+
+	/**
+	 * Merge the sorted runs and pass all rows with the same key, as one group, to a consumer.
+	 * 
+	 * @param consumer consumer of row groups
+	 * @throws IOException 
+	 */
+	public void merge(Consumer<List<Row>> consumer) throws IOException {
+		if (runs.isEmpty()) {
+			// everything fits in memory
+			rows.sort(ORDER);
+			group(rows.iterator(), consumer);
+			rows = new ArrayList<>();
+			return;
+		}
+		if (!rows.isEmpty()) {
+			spill();
+		}
+		LOG.info("Merging {} sorted runs", runs.size());
+
+		PriorityQueue<Run> queue = new PriorityQueue<>(runs.size(), 
+			Comparator.comparing(Run::peek, ORDER).thenComparingInt(r -> r.nr));
+		try {
+			for (int i = 0; i < runs.size(); i++) {
+				Run run = new Run(runs.get(i), i);
+				if (run.hasNext()) {
+					queue.add(run);
+				} else {
+					run.close();
+				}
+			}
+			group(new Iterator<Row>() {
+				@Override
+				public boolean hasNext() {
+					return !queue.isEmpty();
+				}
+
+				@Override
+				public Row next() {
+					Run run = queue.poll();
+					Row row = run.next();
+					if (run.hasNext()) {
+						queue.add(run);
+					} else {
+						try {
+							run.close();
+						} catch (IOException ioe) {
+							throw new IllegalStateException("Could not close sorted run", ioe);
+						}
+					}
+					return row;
+				}
+			}, consumer);
+		} finally {
+			for (Run run: queue) {
+				run.close();
+			}
+		}
+	}
+
+	/**
+	 * Pass consecutive rows with the same key as one group
+	 * 
+	 * @param it sorted rows
+	 * @param consumer consumer of row groups
+	 */
+	private static void group(Iterator<Row> it, Consumer<List<Row>> consumer) {
+		List<Row> group = new ArrayList<>();
+		while (it.hasNext()) {
+			Row row = it.next();
+			if (!group.isEmpty() && !group.get(0).key.equals(row.key)) {
+				consumer.accept(group);
+				group = new ArrayList<>();
+			}
+			group.add(row);
+		}
+		if (!group.isEmpty()) {
+			consumer.accept(group);
+		}
+	}
+
+	/**
+	 * Delete the temporary files
+	 */
+	@Override
+	public void close() {
+		for (File f: runs) {
+			if (!f.delete()) {
+				LOG.warn("Could not delete {}", f);
+			}
+		}
+		runs.clear();
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param tmpdir directory for temporary files
+	 * @param budget memory budget in bytes
+	 */
+	public EntitySorter(File tmpdir, long budget) {
+		this.tmpdir = tmpdir;
+		this.budget = budget;
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import be.bosa.dt.cbetools.common.Options;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds a lookup index from the converted N-Triples file, to be memory-mapped by the proxy.
+ * 
+ * All triples about the same enterprise or establishment are written as one block to cbe-index.nt, 
+ * ordered by CBE number: triples having the entity IRI as subject, the registration of an enterprise, 
+ * and the addresses of the entity (joined on the address IRI, since an address can be shared by many entities).
+ * Only 10 digit CBE numbers are indexed.
+ * The file cbe-index.idx contains a header with a magic number and the number of entries, 
+ * followed by one fixed-size (24 bytes, big-endian) entry per entity:
+ * CBE number (long), offset (long) and length (int) of the block, and kind (int, 0 = enterprise, 1 = establishment).
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class IndexBuilder {
+	private final static Logger LOG = LoggerFactory.getLogger(IndexBuilder.class);
+
+	public final static long MAGIC = 0x4342454944583031L; // CBEIDX01
+
+	private final static String[] PREFIXES = { "/id/CbeRegisteredEntity/", "/id/CbeEstablishmentUnit/", 
+												"/id/cbe/registration/" };
+	// kind of entity for each prefix: 0 = enterprise, 1 = establishment
+	private final static int[] KINDS = { 0, 1, 0 };
+	private final static String PREFIX_ADDR = "/id/cbe/addr/";
+	private final static String ADDRESS_PROP = "<http://www.w3.org/ns/locn#address> <";
+	private final static int ID_LENGTH = 10;
+	// rows of the address sorter: link from an entity to an address, or triple about an address
+	private final static int ADDR_LINK = 0;
+	private final static int ADDR_TRIPLE = 1;
+
+	private final static int BUFFER_SIZE = 256 * 1024;
+	private final static int SORT_MEMORY = 256;
+
+	private final EntitySorter sorter;
+	private final EntitySorter addresses;
+	private long entries = 0;
+	private long triples = 0;
+
+	/**
+	 * Check if an ID is a 10 digit CBE number
+	 * 
+	 * @param id ID
+	 * @return true if valid
+	 */
+	private static boolean isValid(String id) {
+		return id.length() == ID_LENGTH && id.chars().allMatch(Character::isDigit);
+	}
+
+	/**
+	 * Add a triple if the subject is an enterprise, establishment, registration or address
+	 * 
+	 * @param line N-Triples line
+	 * @throws IOException 
+	 */
+	private void add(String line) throws IOException {
+		if (line.isEmpty() || line.charAt(0) != '<') {
+			return;
+		}
+		int end = line.indexOf('>');
+		if (end < 0) {
+			return;
+		}
+		if (line.lastIndexOf(PREFIX_ADDR, end) > 0) {
+			addresses.add(line.substring(1, end), ADDR_TRIPLE, new String[] { line });
+			return;
+		}
+		for (int i = 0; i < PREFIXES.length; i++) {
+			int start = line.lastIndexOf(PREFIXES[i], end);
+			if (start > 0) {
+				String id = line.substring(start + PREFIXES[i].length(), end);
+				if (isValid(id)) {
+					sorter.add(id, KINDS[i], new String[] { line });
+					triples++;
+					addLink(line, end, id, KINDS[i]);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Add link from an entity to its address, if the triple is one
+	 * 
+	 * @param line N-Triples line
+	 * @param end end of the subject
+	 * @param id CBE number of the entity
+	 * @param kind kind of entity
+	 * @throws IOException 
+	 */
+	private void addLink(String line, int end, String id, int kind) throws IOException {
+		int start = end + 2;
+		if (!line.startsWith(ADDRESS_PROP, start)) {
+			return;
+		}
+		start += ADDRESS_PROP.length();
+		int stop = line.indexOf('>', start);
+		if (stop > 0) {
+			addresses.add(line.substring(start, stop), ADDR_LINK, new String[] { id, String.valueOf(kind) });
+		}
+	}
+
+	/**
+	 * Add the triples about each address to all entities having that address
+	 * 
+	 * @throws IOException 
+	 */
+	private void joinAddresses() throws IOException {
+		addresses.merge((List<EntitySorter.Row> group) -> {
+			// links are sorted before the triples about the address
+			Map<String, Integer> entities = new LinkedHashMap<>();
+			Set<String> lines = new LinkedHashSet<>();
+			for (EntitySorter.Row row: group) {
+				if (row.source == ADDR_LINK) {
+					entities.put(row.values[0], Integer.valueOf(row.values[1]));
+				} else {
+					lines.add(row.values[0]);
+				}
+			}
+			try {
+				for (Map.Entry<String, Integer> entity: entities.entrySet()) {
+					for (String line: lines) {
+						sorter.add(entity.getKey(), entity.getValue(), new String[] { line });
+						triples++;
+					}
+				}
+			} catch (IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+		});
+	}
+
+	/**
+	 * Read an N-Triples file (optionally gzip-compressed)
+	 * 
+	 * @param f N-Triples file
+	 * @throws IOException 
+	 */
+	public void read(File f) throws IOException {
+		LOG.info("Reading {}", f);
+		InputStream in = new FileInputStream(f);
+		if (f.getName().endsWith(".gz")) {
+			in = new GZIPInputStream(in, BUFFER_SIZE);
+		}
+		try (BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+			String line;
+			while ((line = r.readLine()) != null) {
+				add(line);
+			}
+		}
+	}
+
+	/**
+	 * Write the sorted blocks and the index
+	 * 
+	 * @param outdir output directory
+	 * @throws IOException 
+	 */
+	public void write(File outdir) throws IOException {
+		joinAddresses();
+
+		File tmp = new File(outdir, "cbe-index.idx.tmp");
+		try (OutputStream data = new BufferedOutputStream(
+								new FileOutputStream(new File(outdir, "cbe-index.nt")), BUFFER_SIZE);
+			DataOutputStream idx = new DataOutputStream(
+								new BufferedOutputStream(new FileOutputStream(tmp), BUFFER_SIZE))) {
+			long[] offset = { 0 };
+			sorter.merge((List<EntitySorter.Row> group) -> {
+				try {
+					long start = offset[0];
+					for (EntitySorter.Row row: group) {
+						byte[] b = (row.values[0] + "\n").getBytes(StandardCharsets.UTF_8);
+						data.write(b);
+						offset[0] += b.length;
+					}
+					idx.writeLong(Long.parseLong(group.get(0).key));
+					idx.writeLong(start);
+					idx.writeInt((int) (offset[0] - start));
+					idx.writeInt(group.get(0).source);
+					entries++;
+				} catch (IOException ioe) {
+					throw new UncheckedIOException(ioe);
+				}
+			});
+		}
+		// prepend header, now that the number of entries is known
+		File f = new File(outdir, "cbe-index.idx");
+		try (DataOutputStream idx = new DataOutputStream(
+								new BufferedOutputStream(new FileOutputStream(f), BUFFER_SIZE));
+			InputStream in = new FileInputStream(tmp)) {
+			idx.writeLong(MAGIC);
+			idx.writeLong(entries);
+			in.transferTo(idx);
+		}
+		if (!tmp.delete()) {
+			LOG.warn("Could not delete {}", tmp);
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param sorter sorter for the triples of the entities
+	 * @param addresses sorter for the addresses
+	 */
+	public IndexBuilder(EntitySorter sorter, EntitySorter addresses) {
+		this.sorter = sorter;
+		this.addresses = addresses;
+	}
+
+	/**
+	 * Main
+	 * 
+	 * @param args
+	 * @throws IOException 
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: index <cbe.nt|cbe.nt.gz> <output_dir> [--memory=N] [--tmp=dir]");
+			System.exit(-1);
+		}
+
+		File inf = new File(args[0]);
+		File outdir = new File(args[1]);
+
+		Options opts = new Options(args, 2);
+		int memory = opts.getInt("memory", SORT_MEMORY);
+		File tmpdir = new File(opts.get("tmp", outdir.getPath()));
+
+		LOG.info("--- START ---");
+		LOG.info("Params in = {}, out = {}, memory = {} MB", inf, outdir, memory);
+
+		// memory is shared by the two sorters
+		try (EntitySorter sorter = new EntitySorter(tmpdir, memory * 512L * 1024L);
+			EntitySorter addresses = new EntitySorter(tmpdir, memory * 512L * 1024L)) {
+			IndexBuilder builder = new IndexBuilder(sorter, addresses);
+			builder.read(inf);
+			builder.write(outdir);
+			LOG.info("Entities = {}, triples = {}", builder.entries, builder.triples);
+		}
+
+		LOG.info("--- END ---");
+	}
+}
@@ -26,25 +26,63 @@
 package be.bosa.dt.cbetools.converter;
 
 import be.bosa.dt.cbetools.common.CBEConverter;
+import be.bosa.dt.cbetools.common.CachingValueFactory;
+import be.bosa.dt.cbetools.common.CBEEmitter;
 import be.bosa.dt.cbetools.common.CsvBulkReader;
+import be.bosa.dt.cbetools.common.CsvInput;
+import be.bosa.dt.cbetools.common.NTriplesSink;
+import be.bosa.dt.cbetools.common.Options;
+import be.bosa.dt.cbetools.common.RejectSink;
+import be.bosa.dt.cbetools.common.RowEmitter;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 
 import java.nio.charset.StandardCharsets;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.GEO;
+import org.eclipse.rdf4j.model.vocabulary.LOCN;
+import org.eclipse.rdf4j.model.vocabulary.ORG;
+import org.eclipse.rdf4j.model.vocabulary.OWL;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.ROV;
+import org.eclipse.rdf4j.model.vocabulary.SKOS;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFHandler;
@@ -61,6 +99,24 @@ import org.slf4j.LoggerFactory;
 public class Main {
 	private final static Logger LOG = LoggerFactory.getLogger(Main.class);
 
+	// minimum number of converted batches waiting to be written, per output file
+	private final static int QUEUE_SIZE = 16;
+
+	// default number of rows in a batch
+	private final static int BATCH_SIZE = 10000;
+
+	// initial size of N-Triples buffers, in bytes
+	private final static int BUFFER_SIZE = 1024 * 1024;
+
+	// default interval for logging progress, in seconds
+	private final static int PROGRESS_INTERVAL = 60;
+
+	// maximum length of strings kept in the value cache
+	private final static int CACHE_MAX_LENGTH = 256;
+
+	// default memory budget for sorting rows per entity, in MB
+	private final static int GROUP_MEMORY = 256;
+
 	/**
 	 * Map files to the functions generating RDF triples.
 	 */
@@ -87,89 +143,818 @@ public class Main {
 	};
 
 	/**
-	 * Generate RDF triples from CSV file, reading 10000 lines at once
+	 * Map files to the functions writing N-Triples directly
+	 */
+	private final static HashMap<String, RowEmitter> EMITTERS = new HashMap<String, RowEmitter>() {
+		{
+			put("enterprise.csv", CBEEmitter.Org);
+			put("denomination.csv", CBEEmitter.Names);
+			put("establishment.csv", CBEEmitter.Sites);
+			put("contact.csv", CBEEmitter.Contacts);
+			put("activity.csv", CBEEmitter.Activities);
+			put("address.csv", CBEEmitter.Addresses);
+			put("Brussels_addresses.csv", CBEEmitter.Best);
+			put("Flanders_addresses.csv", CBEEmitter.Best);
+			put("Wallonia_addresses.csv", CBEEmitter.Best);
+			put("code.csv", CBEEmitter.Codes);
+		}
+	};
+
+	/**
+	 * Files sorted by entity number when grouping, in the order rows for the same entity are converted
+	 */
+	private final static List<String> GROUP_FILES = List.of("enterprise.csv", "establishment.csv", 
+		"denomination.csv", "address.csv", "contact.csv", "activity.csv");
+
+	// source of establishment rows sorted by enterprise number, linking enterprises to their establishments
+	private final static int SITE_LINKS = GROUP_FILES.size();
+
+	/**
+	 * Supported output formats
+	 */
+	private final static Map<String, RDFFormat> FORMATS = Map.of(
+		"ntriples", RDFFormat.NTRIPLES,
+		"binary", RDFFormat.BINARY,
+		"turtle", RDFFormat.TURTLE);
+
+	/**
+	 * Namespace prefixes for Turtle output
+	 */
+	private final static List<Namespace> NAMESPACES = List.of(RDF.NS, RDFS.NS, OWL.NS, XSD.NS, 
+		DCTERMS.NS, FOAF.NS, GEO.NS, LOCN.NS, ORG.NS, ROV.NS, SKOS.NS);
+
+	/**
+	 * N-Triples buffers that have been written and can be reused
+	 */
+	private final static Queue<NTriplesSink> SINKS = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Generate batches of RDF triples from CSV file, reading a number of lines at once.
+	 * The calling thread only reads the CSV, the lines are converted by the pool (if any).
 	 *
-	 * @param rdf RDF writer
+	 * @param sink consumer of the (future) converted batches, in the order they were read
 	 * @param csv CSV containing data
-	 * @param fun function generating RDF triples
+	 * @param fun function converting a batch of lines
+	 * @param lines number of lines in a batch
+	 * @param pool pool converting the lines, or null to convert on the calling thread
+	 * @param stats metrics for this file
 	 * @throws IOException
 	 */
-	private static void add(RDFHandler rdf, Reader csv,
-		Function<String[], Stream<Statement>> fun) throws IOException {
-		int lines = 10000;
+	private static <T> void add(Consumer<Future<T>> sink, Reader csv,
+		Function<List<String[]>, T> fun, int lines, ForkJoinPool pool, RunMetrics.Stats stats) 
+			throws IOException {
 
 		try (CsvBulkReader r = new CsvBulkReader(csv)) {
 			while (r.hasNext()) {
-				r.readNext(lines).stream().flatMap(fun).forEach(rdf::handleStatement);
+				long t0 = System.nanoTime();
+				List<String[]> rows = r.readNext(lines);
+				stats.read(rows.size(), System.nanoTime() - t0);
+				if (pool == null) {
+					sink.accept(CompletableFuture.completedFuture(fun.apply(rows)));
+				} else {
+					sink.accept(CompletableFuture.supplyAsync(() -> fun.apply(rows), pool));
+				}
 				LOG.debug("Reading lines");
 			}
 		}
 	}
 
 	/**
-	 * Main
-	 *
-	 * @param args
-	 * @throws IOException
+	 * Get the function generating RDF triples for a CSV file
+	 * 
+	 * @param file CSV file name
+	 * @return function
 	 */
-	public static void main(String[] args) throws IOException {
-		if (args.length < 2) {
-			System.out.println("Usage: cbe <input_dir> <output_dir>");
-			System.exit(-1);
+	private static Function<String[], Stream<Statement>> function(String file) {
+		if (file.equals("code.csv")) {
+			return CBEConverter.Codes;
 		}
+		return MAP.containsKey(file) ? MAP.get(file) : MAP_BEST.get(file);
+	}
 
-		File base = new File(args[0]);
-		File outf = new File(args[1], "cbe.nt");
-		File outt = new File(args[1], "cbetypes.nt");
-		File outb = new File(args[1], "bestgps.nt");
-		
-		LOG.info("--- START ---");
-		LOG.info("Params in = {}, out = {}", base);
+	/**
+	 * Get the function generating RDF triples for rows sorted by entity
+	 * 
+	 * @param source index of the source file
+	 * @return function
+	 */
+	private static Function<String[], Stream<Statement>> function(int source) {
+		return (source == SITE_LINKS) ? CBEConverter.Sites : function(GROUP_FILES.get(source));
+	}
+
+	/**
+	 * Convert a batch of rows into a list of statements
+	 * 
+	 * @param rows CSV rows
+	 * @param fun function generating RDF triples
+	 * @return list of statements
+	 */
+	private static List<Statement> convert(List<String[]> rows, 
+		Function<String[], Stream<Statement>> fun) {
+		return rows.stream().flatMap(fun).collect(Collectors.toList());
+	}
+
+	/**
+	 * Convert a batch of rows into N-Triples, using a recycled buffer when available
+	 * 
+	 * @param rows CSV rows
+	 * @param fun function writing N-Triples
+	 * @return N-Triples buffer
+	 */
+	private static NTriplesSink emit(List<String[]> rows, RowEmitter fun) {
+		NTriplesSink sink = SINKS.poll();
+		if (sink == null) {
+			sink = new NTriplesSink(BUFFER_SIZE);
+		}
+		for (String[] row: rows) {
+			fun.emit(row, sink);
+		}
+		return sink;
+	}
+
+	/**
+	 * Split a batch of statements into shards, based on the subject
+	 * 
+	 * @param statements statements
+	 * @param shards number of shards
+	 * @return statements per shard
+	 */
+	private static List<List<Statement>> split(List<Statement> statements, int shards) {
+		List<List<Statement>> parts = new ArrayList<>(shards);
+		for (int i = 0; i < shards; i++) {
+			parts.add(new ArrayList<>(statements.size() / shards + 1));
+		}
+		for (Statement st: statements) {
+			parts.get(NTriplesSink.partition(st.getSubject().stringValue(), shards)).add(st);
+		}
+		return parts;
+	}
+
+	/**
+	 * Split an N-Triples buffer into shards, based on the subject. 
+	 * The buffer is recycled, the shards use recycled buffers when available.
+	 * 
+	 * @param sink N-Triples buffer
+	 * @param shards number of shards
+	 * @return N-Triples buffer per shard
+	 */
+	private static List<NTriplesSink> split(NTriplesSink sink, int shards) {
+		NTriplesSink[] parts = new NTriplesSink[shards];
+		for (int i = 0; i < shards; i++) {
+			parts[i] = SINKS.poll();
+			if (parts[i] == null) {
+				parts[i] = new NTriplesSink(BUFFER_SIZE / shards);
+			}
+		}
+		sink.copyPartitioned(parts);
+		sink.reset();
+		SINKS.offer(sink);
+		return Arrays.asList(parts);
+	}
+
+	/**
+	 * Create RDF writer, text formats are written using a buffered UTF-8 writer
+	 * 
+	 * @param format RDF format
+	 * @param out output stream
+	 * @return RDF writer
+	 */
+	private static RDFWriter createWriter(RDFFormat format, OutputStream out) {
+		if (format.hasCharset()) {
+			return Rio.createWriter(format, 
+				new BufferedWriter(new OutputStreamWriter(out, format.getCharset())));
+		}
+		return Rio.createWriter(format, out);
+	}
+
+	/**
+	 * Create RDF writer and start writing, adding namespace prefixes for Turtle
+	 * 
+	 * @param format RDF format
+	 * @param out output stream
+	 * @return RDF writer
+	 */
+	private static RDFWriter startWriter(RDFFormat format, OutputStream out) {
+		RDFWriter rdf = createWriter(format, out);
+		rdf.startRDF();
+		if (format == RDFFormat.TURTLE) {
+			NAMESPACES.forEach(ns -> rdf.handleNamespace(ns.getPrefix(), ns.getName()));
+		}
+		return rdf;
+	}
+
+	/**
+	 * Create a batch writer for N-Triples buffers, which are recycled after being written
+	 * 
+	 * @param out output stream
+	 * @param size maximum number of pending batches
+	 * @param name name of the writer thread
+	 * @param stats metrics for the output file
+	 * @return batch writer
+	 */
+	private static BatchWriter<NTriplesSink> sinkWriter(OutputStream out, int size, String name,
+			RunMetrics.Stats stats) {
+		return new BatchWriter<>(sink -> {
+			try {
+				sink.writeTo(out);
+			} catch (IOException ioe) {
+				throw new UncheckedIOException(ioe);
+			}
+			sink.reset();
+			SINKS.offer(sink);
+		}, () -> {}, size, name, stats);
+	}
 
-		// companies / organizations
-		try (FileOutputStream fout = new FileOutputStream(outf);
-			BufferedWriter w = new BufferedWriter(
-				new OutputStreamWriter(fout, StandardCharsets.UTF_8))) {
-			RDFWriter rdf = Rio.createWriter(RDFFormat.NTRIPLES, w);
-			rdf.startRDF();
+	/**
+	 * Submit the conversion of a CSV file to a thread pool
+	 * 
+	 * @param pool thread pool
+	 * @param sink consumer of the converted batches
+	 * @param input input directory or ZIP file
+	 * @param file CSV file name
+	 * @param fun function converting a batch of lines
+	 * @param lines number of lines in a batch
+	 * @param fjp pool converting the lines, or null
+	 * @param stats metrics for this file
+	 * @return future
+	 */
+	private static <T> Future<?> submit(ExecutorService pool, Consumer<Future<T>> sink, 
+		CsvInput input, String file, Function<List<String[]>, T> fun, int lines, ForkJoinPool fjp,
+		RunMetrics.Stats stats) {
+		return pool.submit(() -> {
+			LOG.info("Reading CSV file {}", file);
+			add(sink, input.open(file), fun, lines, fjp, stats);
+			LOG.info("Done reading CSV file {}", file);
+			return null;
+		});
+	}
+
+	/**
+	 * Convert all CSV files one by one, on the main thread
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param outputs output files
+	 * @param format RDF output format
+	 * @param outf main output file
+	 * @param outb output file for BEST geocoordinates
+	 * @param lines number of lines in a batch
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static void convert(CsvInput input, OutputFiles outputs, RDFFormat format, 
+			File outf, File outb, int lines, RunMetrics metrics) throws IOException {
+		// companies / organizations and organization types
+		try (OutputStream fout = outputs.open(outf)) {
+			RDFWriter rdf = startWriter(format, fout);
 
 			for (String file : MAP.keySet()) {
 				LOG.info("Reading CSV file {}", file);
-				InputStream fin = new FileInputStream(new File(base, file));
-				add(rdf, new InputStreamReader(fin, StandardCharsets.UTF_8), MAP.get(file));
+				CsvPipeline.toRDF(rdf, input.open(file), MAP.get(file), lines, metrics.file(file));
 			}
+			String file = "code.csv";
+			LOG.info("Reading CSV file {}", file);
+			CsvPipeline.toRDF(rdf, input.open(file), CBEConverter.Codes, lines, metrics.file(file));
 
 			rdf.endRDF();
 		}
+		convertBest(input, outputs, format, outb, lines, metrics);
+	}
 
-		// geocoordinates
-		try (FileOutputStream fout = new FileOutputStream(outb);
-			BufferedWriter w = new BufferedWriter(
-				new OutputStreamWriter(fout, StandardCharsets.UTF_8))) {
-			RDFWriter rdf = Rio.createWriter(RDFFormat.NTRIPLES, w);
-			rdf.startRDF();
+	/**
+	 * Convert the BEST address files, on the main thread
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param outputs output files
+	 * @param format RDF output format
+	 * @param outb output file for BEST geocoordinates
+	 * @param lines number of lines in a batch
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static void convertBest(CsvInput input, OutputFiles outputs, RDFFormat format, 
+			File outb, int lines, RunMetrics metrics) throws IOException {
+		try (OutputStream fout = outputs.open(outb)) {
+			RDFWriter rdf = startWriter(format, fout);
 
 			for (String file : MAP_BEST.keySet()) {
 				LOG.info("Reading CSV file {}", file);
-				InputStream fin = new FileInputStream(new File(base, file));
-				add(rdf, new InputStreamReader(fin, StandardCharsets.UTF_8), MAP_BEST.get(file));
+				CsvPipeline.toRDF(rdf, input.open(file), MAP_BEST.get(file), lines, metrics.file(file));
 			}
 
 			rdf.endRDF();
 		}
+	}
+
+	/**
+	 * Convert all rows of an entity, and write the statements grouped per subject
+	 * 
+	 * @param rdf RDF writer
+	 * @param group rows with the same entity number
+	 * @param stats metrics
+	 */
+	private static void convertGroup(RDFHandler rdf, List<EntitySorter.Row> group, RunMetrics.Stats stats) {
+		long t0 = System.nanoTime();
+		Map<Resource, List<Statement>> subjects = new LinkedHashMap<>();
+		long count = 0;
+		for (EntitySorter.Row row: group) {
+			Iterator<Statement> it = function(row.source).apply(row.values).iterator();
+			while (it.hasNext()) {
+				Statement st = it.next();
+				if (inGroup(row.source, st)) {
+					subjects.computeIfAbsent(st.getSubject(), k -> new ArrayList<>()).add(st);
+					count++;
+				}
+			}
+		}
+		long t1 = System.nanoTime();
+		subjects.values().forEach(l -> l.forEach(rdf::handleStatement));
+		long t2 = System.nanoTime();
+
+		stats.convert(count, t1 - t0);
+		stats.write(t2 - t1);
+	}
+
+	/**
+	 * Check if a statement belongs to the group of the row it was generated from.
+	 * An establishment row is sorted twice: the link from the enterprise to the establishment
+	 * belongs to the group of the enterprise, the other statements to the group of the establishment.
+	 * 
+	 * @param source index of the source file of the row
+	 * @param st statement
+	 * @return true if the statement belongs to the group
+	 */
+	private static boolean inGroup(int source, Statement st) {
+		return (source == SITE_LINKS) == st.getPredicate().equals(ORG.HAS_SITE);
+	}
+
+	/**
+	 * Check if an entity belongs to a partition
+	 * 
+	 * @param key entity number
+	 * @param partition partition number
+	 * @param partitions number of partitions
+	 * @return true if entity belongs to the partition
+	 */
+	private static boolean inPartition(String key, int partition, int partitions) {
+		return partitions == 1 || (key.hashCode() & Integer.MAX_VALUE) % partitions == partition;
+	}
+
+	/**
+	 * Read all rows of the KBO CSV files and add them to a sorter, using the entity number as key
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param sorter entity sorter
+	 * @param lines number of lines in a batch
+	 * @param links also add establishment rows using the enterprise number as key
+	 * @param partition only add entities of this partition
+	 * @param partitions number of partitions
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static void sort(CsvInput input, EntitySorter sorter, int lines, boolean links, 
+			int partition, int partitions, RunMetrics metrics) throws IOException {
+		for (int i = 0; i < GROUP_FILES.size(); i++) {
+			String file = GROUP_FILES.get(i);
+			LOG.info("Sorting CSV file {}", file);
+			RunMetrics.Stats stats = metrics.file(file);
+			boolean sites = links && file.equals("establishment.csv");
+
+			try (CsvBulkReader r = new CsvBulkReader(input.open(file))) {
+				while (r.hasNext()) {
+					long t0 = System.nanoTime();
+					List<String[]> rows = r.readNext(lines);
+					for (String[] row: rows) {
+						if (inPartition(row[0], partition, partitions)) {
+							sorter.add(row[0], i, row);
+						}
+						if (sites && inPartition(row[2], partition, partitions)) {
+							sorter.add(row[2], SITE_LINKS, row);
+						}
+					}
+					stats.read(rows.size(), System.nanoTime() - t0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sort all rows by entity number first, so the triples of an entity are written together, 
+	 * grouped by subject.
+	 * Only the main output is sorted, the codes are added at the end.
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param outputs output files
+	 * @param format RDF output format
+	 * @param outf main output file
+	 * @param outb output file for BEST geocoordinates
+	 * @param lines number of lines in a batch
+	 * @param sorter entity sorter
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static void convertGrouped(CsvInput input, OutputFiles outputs, RDFFormat format, 
+			File outf, File outb, int lines, EntitySorter sorter, RunMetrics metrics) throws IOException {
+		sort(input, sorter, lines, true, 0, 1, metrics);
+
+		try (OutputStream fout = outputs.open(outf)) {
+			RDFWriter rdf = startWriter(format, fout);
+
+			RunMetrics.Stats stats = metrics.file("merged");
+			sorter.merge(group -> convertGroup(rdf, group, stats));
 
-		// organization types
-		try (FileOutputStream fout = new FileOutputStream(outf, true);
-			BufferedWriter w = new BufferedWriter(
-				new OutputStreamWriter(fout, StandardCharsets.UTF_8))) {
-			RDFWriter rdf = Rio.createWriter(RDFFormat.NTRIPLES, w);
-			rdf.startRDF();
 			String file = "code.csv";
 			LOG.info("Reading CSV file {}", file);
-			InputStream fin = new FileInputStream(new File(base, file));
-			add(rdf, new InputStreamReader(fin, StandardCharsets.UTF_8), CBEConverter.Codes);
+			CsvPipeline.toRDF(rdf, input.open(file), CBEConverter.Codes, lines, metrics.file(file));
+
 			rdf.endRDF();
 		}
+		convertBest(input, outputs, format, outb, lines, metrics);
+	}
+
+	/**
+	 * Convert all CSV files one by one on the main thread, writing N-Triples directly.
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param outputs output files
+	 * @param outf main output file
+	 * @param outb output file for BEST geocoordinates
+	 * @param lines number of lines in a batch
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static void convertDirect(CsvInput input, OutputFiles outputs, File outf, File outb, int lines,
+			RunMetrics metrics) throws IOException {
+		NTriplesSink sink = new NTriplesSink(BUFFER_SIZE);
+
+		// companies / organizations and organization types
+		try (OutputStream out = outputs.open(outf)) {
+			for (String file : MAP.keySet()) {
+				LOG.info("Reading CSV file {}", file);
+				CsvPipeline.toNTriples(out, sink, input.open(file), EMITTERS.get(file), lines, metrics.file(file));
+			}
+			String file = "code.csv";
+			LOG.info("Reading CSV file {}", file);
+			CsvPipeline.toNTriples(out, sink, input.open(file), EMITTERS.get(file), lines, metrics.file(file));
+		}
+
+		// geocoordinates
+		try (OutputStream out = outputs.open(outb)) {
+			for (String file : MAP_BEST.keySet()) {
+				LOG.info("Reading CSV file {}", file);
+				CsvPipeline.toNTriples(out, sink, input.open(file), EMITTERS.get(file), lines, metrics.file(file));
+			}
+		}
+	}
+
+	/**
+	 * Convert CSV files concurrently, each file is read by its own worker.
+	 * Batches of lines are converted by a separate pool, when parallelism is more than 1.
+	 * Each output file has its own writer thread, writing the batches of a CSV file in input order.
+	 * 
+	 * When reading more than one file at the same time, the order of the triples will differ 
+	 * from the sequential conversion, but the set of triples is the same.
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param outputs output files
+	 * @param outf main output file
+	 * @param outb output file for BEST geocoordinates
+	 * @param threads number of files being read at the same time
+	 * @param lines number of lines in a batch
+	 * @param parallelism number of threads converting batches
+	 * @param fun function returning the batch conversion function for a CSV file
+	 * @param count function returning the number of triples in a converted batch
+	 * @param writers function creating a batch writer for an output stream and output file name
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static <T> void convertParallel(CsvInput input, OutputFiles outputs, File outf, File outb, 
+			int threads, int lines, int parallelism, Function<String, Function<List<String[]>, T>> fun, 
+			ToLongFunction<T> count, BiFunction<OutputStream, String, BatchWriter<T>> writers, 
+			RunMetrics metrics) throws IOException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ForkJoinPool fjp = (parallelism > 1) ? new ForkJoinPool(parallelism) : null;
+
+		try (OutputStream fout = outputs.open(outf);
+			BatchWriter<T> w = writers.apply(fout, outf.getName());
+			OutputStream bout = outputs.open(outb);
+			BatchWriter<T> wb = writers.apply(bout, outb.getName())) {
+
+			// measure conversion time and number of triples, per CSV file
+			Function<String, Function<List<String[]>, T>> measured = file -> {
+				Function<List<String[]>, T> f = fun.apply(file);
+				RunMetrics.Stats stats = metrics.file(file);
+				return rows -> {
+					long t0 = System.nanoTime();
+					T batch = f.apply(rows);
+					stats.convert(count.applyAsLong(batch), System.nanoTime() - t0);
+					return batch;
+				};
+			};
+
+			List<Future<?>> tasks = new ArrayList<>();
+			for (String file : MAP.keySet()) {
+				tasks.add(submit(pool, w, input, file, measured.apply(file), lines, fjp, metrics.file(file)));
+			}
+			for (String file : MAP_BEST.keySet()) {
+				tasks.add(submit(pool, wb, input, file, measured.apply(file), lines, fjp, metrics.file(file)));
+			}
+			String file = "code.csv";
+			tasks.add(submit(pool, w, input, file, measured.apply(file), lines, fjp, metrics.file(file)));
+
+			for (Future<?> task: tasks) {
+				task.get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted", ie);
+		} catch (ExecutionException ee) {
+			throw new IOException("Conversion failed", ee.getCause());
+		} finally {
+			pool.shutdownNow();
+			if (fjp != null) {
+				fjp.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Convert CSV files into a number of shard files, based on a hash of the enterprise or establishment 
+	 * number in the subject, so e.g. all triples about an organization and its registration end up in the same shard.
+	 * Each shard is written by its own writer thread.
+	 * The BEST geocoordinates are not sharded.
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param outputs output files
+	 * @param shardFiles shard files
+	 * @param outb output file for BEST geocoordinates
+	 * @param threads number of files being read at the same time
+	 * @param lines number of lines in a batch
+	 * @param parallelism number of threads converting batches
+	 * @param fun function returning the batch conversion function for a CSV file
+	 * @param split function splitting a converted batch into shards
+	 * @param count function returning the number of triples in a converted batch
+	 * @param writers function creating a batch writer for an output stream and output file name
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static <T> void convertSharded(CsvInput input, OutputFiles outputs, List<File> shardFiles, File outb, 
+			int threads, int lines, int parallelism, Function<String, Function<List<String[]>, T>> fun, 
+			BiFunction<T, Integer, List<T>> split, ToLongFunction<T> count, 
+			BiFunction<OutputStream, String, BatchWriter<T>> writers, RunMetrics metrics) throws IOException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ForkJoinPool fjp = (parallelism > 1) ? new ForkJoinPool(parallelism) : null;
+		int shards = shardFiles.size();
+
+		try (ShardedWriter<T> w = new ShardedWriter<>(outputs, shardFiles, writers);
+			OutputStream bout = outputs.open(outb);
+			BatchWriter<T> wb = writers.apply(bout, outb.getName())) {
+
+			List<Future<?>> tasks = new ArrayList<>();
+			List<String> files = new ArrayList<>(MAP.keySet());
+			files.add("code.csv");
+			for (String file : files) {
+				Function<List<String[]>, T> f = fun.apply(file);
+				RunMetrics.Stats stats = metrics.file(file);
+				Function<List<String[]>, List<T>> sharded = rows -> {
+					long t0 = System.nanoTime();
+					T batch = f.apply(rows);
+					stats.convert(count.applyAsLong(batch), System.nanoTime() - t0);
+					return split.apply(batch, shards);
+				};
+				tasks.add(submit(pool, w, input, file, sharded, lines, fjp, stats));
+			}
+			for (String file : MAP_BEST.keySet()) {
+				Function<List<String[]>, T> f = fun.apply(file);
+				RunMetrics.Stats stats = metrics.file(file);
+				Function<List<String[]>, T> measured = rows -> {
+					long t0 = System.nanoTime();
+					T batch = f.apply(rows);
+					stats.convert(count.applyAsLong(batch), System.nanoTime() - t0);
+					return batch;
+				};
+				tasks.add(submit(pool, wb, input, file, measured, lines, fjp, stats));
+			}
+
+			for (Future<?> task: tasks) {
+				task.get();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted", ie);
+		} catch (ExecutionException ee) {
+			throw new IOException("Conversion failed", ee.getCause());
+		} finally {
+			pool.shutdownNow();
+			if (fjp != null) {
+				fjp.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Sort all rows by entity number, and write one JSON document per enterprise or establishment
+	 * as newline-delimited JSON.
+	 * 
+	 * @param input input directory or ZIP file
+	 * @param outputs output files
+	 * @param outf output file
+	 * @param lines number of lines in a batch
+	 * @param sorter entity sorter
+	 * @param partition only convert entities of this partition
+	 * @param partitions number of partitions
+	 * @param metrics metrics
+	 * @throws IOException 
+	 */
+	private static void convertJson(CsvInput input, OutputFiles outputs, File outf, int lines, 
+			EntitySorter sorter, int partition, int partitions, RunMetrics metrics) throws IOException {
+		sort(input, sorter, lines, true, partition, partitions, metrics);
+
+		RunMetrics.Stats stats = metrics.file("merged");
+		EntityDocument doc = new EntityDocument();
+
+		try (Writer w = new BufferedWriter(new OutputStreamWriter(outputs.open(outf), StandardCharsets.UTF_8))) {
+			sorter.merge(group -> {
+				long t0 = System.nanoTime();
+				long count = 0;
+				for (EntitySorter.Row row: group) {
+					Iterator<Statement> it = function(row.source).apply(row.values).iterator();
+					while (it.hasNext()) {
+						doc.add(it.next());
+						count++;
+					}
+				}
+				String json = doc.toJson(group.get(0).key);
+				long t1 = System.nanoTime();
+				try {
+					w.write(json);
+					w.write('\n');
+				} catch (IOException ioe) {
+					throw new UncheckedIOException(ioe);
+				}
+				stats.convert(count, t1 - t0);
+				stats.write(System.nanoTime() - t1);
+			});
+		}
+	}
+
+	/**
+	 * Main
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: cbe <input_dir|input_zip> <output_dir> "
+				+ "[--threads=N] [--batch=N] [--parallelism=N] [--direct] [--cache=N] "
+				+ "[--gzip] [--split-triples=N] [--split-size=N] [--compress-threads=N] "
+				+ "[--format=ntriples|binary|turtle|ndjson] [--progress=N] [--report=file] [--rejects=file] "
+				+ "[--group] [--group-memory=N] [--tmp=dir] [--partition=i/N] [--shards=N]");
+			System.exit(-1);
+		}
+
+		Options opts = new Options(args, 2);
+		int threads = opts.getInt("threads", 1);
+		int lines = opts.getInt("batch", BATCH_SIZE);
+		int parallelism = opts.getInt("parallelism", 1);
+		boolean direct = opts.has("direct");
+		int cache = opts.getInt("cache", 0);
+		boolean gzip = opts.has("gzip");
+		int splitTriples = opts.getInt("split-triples", 0);
+		int splitSize = opts.getInt("split-size", 0);
+		int compressThreads = opts.getInt("compress-threads", Runtime.getRuntime().availableProcessors());
+		String formatName = opts.get("format", "ntriples");
+		boolean json = formatName.equals("ndjson");
+		RDFFormat format = json ? RDFFormat.NTRIPLES : FORMATS.get(formatName);
+		int progress = opts.getInt("progress", PROGRESS_INTERVAL);
+		String report = opts.get("report", null);
+		String rejectFile = opts.get("rejects", null);
+		boolean group = opts.has("group");
+		int groupMemory = opts.getInt("group-memory", GROUP_MEMORY);
+		File tmpdir = new File(opts.get("tmp", args[1]));
+		String[] part = opts.get("partition", "0/1").split("/");
+		int partition = Integer.parseInt(part[0]);
+		int partitions = Integer.parseInt(part[1]);
+		int shards = opts.getInt("shards", 1);
+
+		if (format == null) {
+			System.out.println("Format must be one of " + FORMATS.keySet() + " or ndjson");
+			System.exit(-1);
+		}
+		if (format != RDFFormat.NTRIPLES && (direct || splitTriples > 0 || splitSize > 0)) {
+			System.out.println("Direct mode and splitting output are only supported for N-Triples");
+			System.exit(-1);
+		}
+
+		if ((group || json) && (direct || threads > 1 || parallelism > 1)) {
+			System.out.println("Grouping and JSON can't be combined with direct mode or parallel conversion");
+			System.exit(-1);
+		}
+		if (partitions < 1 || partition < 0 || partition >= partitions || (partitions > 1 && !json)) {
+			System.out.println("Partition must be between 0 and N-1, and is only supported for JSON");
+			System.exit(-1);
+		}
+
+		if (shards < 1 || (shards > 1 && (group || json))) {
+			System.out.println("Number of shards must be at least 1, and can't be combined with grouping or JSON");
+			System.exit(-1);
+		}
+
+		String ext = "." + format.getDefaultFileExtension();
+		File outf = new File(args[1], "cbe" + ext);
+		List<File> shardFiles = new ArrayList<>();
+		for (int i = 0; i < shards; i++) {
+			shardFiles.add(new File(args[1], String.format("cbe-shard-%03d%s", i, ext)));
+		}
+		if (json) {
+			outf = new File(args[1], (partitions > 1) ? "cbe-" + partition + "-of-" + partitions + ".ndjson" 
+														: "cbe.ndjson");
+		}
+		File outb = new File(args[1], "bestgps" + ext);
+
+		if (threads < 1 || lines < 1 || parallelism < 1 || compressThreads < 1 || progress < 1) {
+			System.out.println("Number of threads, batch size, parallelism and progress interval must be at least 1");
+			System.exit(-1);
+		}
+
+		CachingValueFactory cvf = null;
+		if (cache > 0) {
+			cvf = new CachingValueFactory(cache, CACHE_MAX_LENGTH);
+			CBEConverter.setValueFactory(cvf);
+		}
+
+		LOG.info("--- START ---");
+		LOG.info("Params in = {}, out = {}, threads = {}, batch = {}, parallelism = {}, direct = {}, cache = {}", 
+			args[0], args[1], threads, lines, parallelism, direct, cache);
+		LOG.info("Output format = {}, gzip = {}, split triples = {}, split size = {} MB", 
+			format.getName(), gzip, splitTriples, splitSize);
+		if (shards > 1) {
+			LOG.info("Shards = {}", shards);
+		}
+		if (group || json) {
+			LOG.info("Grouping per entity, memory = {} MB, tmp = {}, partition {} of {}", 
+				groupMemory, tmpdir, partition, partitions);
+		}
+
+		int queueSize = Math.max(QUEUE_SIZE, parallelism * 2);
+		RunMetrics metrics = new RunMetrics();
+		metrics.start(progress);
+
+		try (CsvInput input = new CsvInput(new File(args[0]));
+			OutputFiles outputs = new OutputFiles(gzip, splitSize * 1024L * 1024L, splitTriples, compressThreads);
+			RejectSink rejects = new RejectSink(RejectSink.LOG_INTERVAL, (rejectFile == null) ? null
+				: new BufferedWriter(new OutputStreamWriter(new FileOutputStream(rejectFile), StandardCharsets.UTF_8)))) {
+			CBEConverter.setRejectSink(rejects);
+
+			if (json) {
+				try (EntitySorter sorter = new EntitySorter(tmpdir, groupMemory * 1024L * 1024L)) {
+					convertJson(input, outputs, outf, lines, sorter, partition, partitions, metrics);
+				}
+			} else if (group) {
+				try (EntitySorter sorter = new EntitySorter(tmpdir, groupMemory * 1024L * 1024L)) {
+					convertGrouped(input, outputs, format, outf, outb, lines, sorter, metrics);
+				}
+			} else if (shards > 1 && direct) {
+				convertSharded(input, outputs, shardFiles, outb, threads, lines, parallelism,
+					file -> rows -> emit(rows, EMITTERS.get(file)), Main::split, NTriplesSink::count,
+					(out, name) -> sinkWriter(out, queueSize, "writer-" + name, metrics.file(name)), 
+					metrics);
+			} else if (shards > 1) {
+				convertSharded(input, outputs, shardFiles, outb, threads, lines, parallelism,
+					file -> rows -> convert(rows, function(file)), Main::split, List::size,
+					(out, name) -> BatchWriter.forRDF(startWriter(format, out), queueSize, 
+						"writer-" + name, metrics.file(name)), 
+					metrics);
+			} else if (threads == 1 && parallelism == 1) {
+				if (direct) {
+					convertDirect(input, outputs, outf, outb, lines, metrics);
+				} else {
+					convert(input, outputs, format, outf, outb, lines, metrics);
+				}
+			} else if (direct) {
+				convertParallel(input, outputs, outf, outb, threads, lines, parallelism,
+					file -> rows -> emit(rows, EMITTERS.get(file)), NTriplesSink::count,
+					(out, name) -> sinkWriter(out, queueSize, "writer-" + name, metrics.file(name)), 
+					metrics);
+			} else {
+				convertParallel(input, outputs, outf, outb, threads, lines, parallelism,
+					file -> rows -> convert(rows, function(file)), List::size,
+					(out, name) -> BatchWriter.forRDF(startWriter(format, out), queueSize, 
+						"writer-" + name, metrics.file(name)), 
+					metrics);
+			}
+		}
+		metrics.stop();
+		Map<String, Long> rejected = CBEConverter.getRejects();
+		if (!rejected.isEmpty()) {
+			LOG.info("Rejected values: {}", rejected);
+		}
+		if (report != null) {
+			metrics.writeReport(new File(report), rejected);
+		}
+		if (cvf != null) {
+			LOG.info("Value cache: {}", cvf);
+		}
 		LOG.info("--- END ---");
 	}
 }
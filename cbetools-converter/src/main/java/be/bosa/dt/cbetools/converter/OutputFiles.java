@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates output streams for the N-Triples files, either plain files or compressed and / or split files.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+class OutputFiles implements AutoCloseable {
+	private final boolean gzip;
+	private final long maxBytes;
+	private final long maxTriples;
+	private final ExecutorService pool;
+
+	/**
+	 * Open output stream for a file
+	 * 
+	 * @param file file (e.g. cbe.nt), ".gz" and part number are added if needed
+	 * @return output stream
+	 * @throws IOException 
+	 */
+	public OutputStream open(File file) throws IOException {
+		if (pool == null) {
+			return new BufferedOutputStream(new FileOutputStream(file));
+		}
+		return new BufferedOutputStream(new SplitOutputStream(file, gzip, maxBytes, maxTriples, pool));
+	}
+
+	@Override
+	public void close() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param gzip compress output
+	 * @param maxBytes maximum number of uncompressed bytes per file, 0 to disable
+	 * @param maxTriples maximum number of triples per file, 0 to disable
+	 * @param threads number of compression threads
+	 */
+	public OutputFiles(boolean gzip, long maxBytes, long maxTriples, int threads) {
+		this.gzip = gzip;
+		this.maxBytes = maxBytes;
+		this.maxTriples = maxTriples;
+		this.pool = (gzip || maxBytes > 0 || maxTriples > 0) 
+			? Executors.newFixedThreadPool(threads, r -> {
+				Thread t = new Thread(r, "compress");
+				t.setDaemon(true);
+				return t;
+			}) 
+			: null;
+	}
+}
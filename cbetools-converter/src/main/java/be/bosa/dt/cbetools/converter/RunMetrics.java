@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.nio.charset.StandardCharsets;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metrics of a conversion run: rows and triples per file, and time spent reading CSV, 
+ * converting and writing the output.
+ * 
+ * Stage times are the sum of the time spent by all threads, so they can be larger than the
+ * elapsed time when converting in parallel.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+class RunMetrics {
+	private final static Logger LOG = LoggerFactory.getLogger(RunMetrics.class);
+
+	private final Map<String, Stats> stats = new ConcurrentSkipListMap<>();
+	private final long start = System.nanoTime();
+	private final Instant started = Instant.now();
+	private ScheduledExecutorService timer;
+
+	/**
+	 * Counters for a single input or output file
+	 */
+	static class Stats {
+		private final LongAdder rows = new LongAdder();
+		private final LongAdder triples = new LongAdder();
+		private final LongAdder readNanos = new LongAdder();
+		private final LongAdder convertNanos = new LongAdder();
+		private final LongAdder writeNanos = new LongAdder();
+
+		/**
+		 * Add rows read from CSV
+		 * 
+		 * @param count number of rows
+		 * @param nanos time spent reading
+		 */
+		void read(long count, long nanos) {
+			rows.add(count);
+			readNanos.add(nanos);
+		}
+
+		/**
+		 * Add converted triples
+		 * 
+		 * @param count number of triples
+		 * @param nanos time spent converting
+		 */
+		void convert(long count, long nanos) {
+			triples.add(count);
+			convertNanos.add(nanos);
+		}
+
+		/**
+		 * Add time spent writing
+		 * 
+		 * @param nanos time spent writing
+		 */
+		void write(long nanos) {
+			writeNanos.add(nanos);
+		}
+	}
+
+	/**
+	 * Get the counters for a file
+	 * 
+	 * @param name file name
+	 * @return counters
+	 */
+	public Stats file(String name) {
+		return stats.computeIfAbsent(name, k -> new Stats());
+	}
+
+	/**
+	 * Get total number of rows read
+	 * 
+	 * @return number of rows
+	 */
+	public long rows() {
+		return stats.values().stream().mapToLong(s -> s.rows.sum()).sum();
+	}
+
+	/**
+	 * Get total number of triples
+	 * 
+	 * @return number of triples
+	 */
+	public long triples() {
+		return stats.values().stream().mapToLong(s -> s.triples.sum()).sum();
+	}
+
+	/**
+	 * Get number of items per second, since the start of the run
+	 * 
+	 * @param count number of items
+	 * @param nanos elapsed time in nanoseconds
+	 * @return items per second
+	 */
+	private static long perSecond(long count, long nanos) {
+		return (nanos > 0) ? count * 1_000_000_000L / nanos : 0;
+	}
+
+	/**
+	 * Log progress
+	 */
+	private void log() {
+		long elapsed = System.nanoTime() - start;
+		long rows = rows();
+		long triples = triples();
+		LOG.info("Progress: {} rows ({} rows/s), {} triples ({} triples/s)", 
+			rows, perSecond(rows, elapsed), triples, perSecond(triples, elapsed));
+	}
+
+	/**
+	 * Start logging the progress periodically
+	 * 
+	 * @param seconds interval in seconds
+	 */
+	public void start(int seconds) {
+		timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "metrics");
+			t.setDaemon(true);
+			return t;
+		});
+		timer.scheduleAtFixedRate(this::log, seconds, seconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Stop logging the progress, and log the final numbers per file
+	 */
+	public void stop() {
+		if (timer != null) {
+			timer.shutdownNow();
+		}
+		log();
+		stats.forEach((name, s) -> 
+			LOG.info("{}: {} rows, {} triples, read {} ms, convert {} ms, write {} ms", name, 
+				s.rows.sum(), s.triples.sum(), ms(s.readNanos), ms(s.convertNanos), ms(s.writeNanos)));
+	}
+
+	/**
+	 * Convert nanoseconds into milliseconds
+	 * 
+	 * @param nanos nanoseconds
+	 * @return milliseconds
+	 */
+	private static long ms(LongAdder nanos) {
+		return nanos.sum() / 1_000_000L;
+	}
+
+	/**
+	 * Escape a string for JSON
+	 * 
+	 * @param s string
+	 * @return quoted string
+	 */
+	private static String quote(String s) {
+		StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+		for (char c: s.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	/**
+	 * Write a JSON report
+	 * 
+	 * @param f report file
+	 * @param rejects number of rejected values per reason
+	 * @throws IOException 
+	 */
+	public void writeReport(File f, Map<String, Long> rejects) throws IOException {
+		long elapsed = System.nanoTime() - start;
+		long rows = rows();
+		long triples = triples();
+		long read = 0;
+		long convert = 0;
+		long write = 0;
+		for (Stats s: stats.values()) {
+			read += s.readNanos.sum();
+			convert += s.convertNanos.sum();
+			write += s.writeNanos.sum();
+		}
+
+		try (PrintWriter w = new PrintWriter(f, StandardCharsets.UTF_8)) {
+			w.println("{");
+			w.printf("  \"started\": %s,%n", quote(started.toString()));
+			w.printf("  \"elapsed_ms\": %d,%n", elapsed / 1_000_000L);
+			w.printf("  \"rows\": %d,%n", rows);
+			w.printf("  \"triples\": %d,%n", triples);
+			w.printf("  \"rows_per_second\": %d,%n", perSecond(rows, elapsed));
+			w.printf("  \"triples_per_second\": %d,%n", perSecond(triples, elapsed));
+			w.printf("  \"stages_ms\": { \"read\": %d, \"convert\": %d, \"write\": %d },%n", 
+				read / 1_000_000L, convert / 1_000_000L, write / 1_000_000L);
+			w.println("  \"files\": {");
+			int i = 0;
+			for (Map.Entry<String, Stats> e: stats.entrySet()) {
+				Stats s = e.getValue();
+				w.printf("    %s: { \"rows\": %d, \"triples\": %d, \"read_ms\": %d, \"convert_ms\": %d, \"write_ms\": %d }%s%n",
+					quote(e.getKey()), s.rows.sum(), s.triples.sum(), 
+					ms(s.readNanos), ms(s.convertNanos), ms(s.writeNanos), (++i < stats.size()) ? "," : "");
+			}
+			w.println("  },");
+			w.println("  \"rejects\": {");
+			i = 0;
+			for (Map.Entry<String, Long> e: rejects.entrySet()) {
+				w.printf("    %s: %d%s%n", quote(e.getKey()), e.getValue(), (++i < rejects.size()) ? "," : "");
+			}
+			w.println("  }");
+			w.println("}");
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Writes batches that have been split into shards (one part per shard) to a set of shard files.
+ * Each shard file has its own batch writer thread, so shards are written concurrently,
+ * and within a shard the parts are written in the order the batches were queued.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ * @param <T> type of the part of a batch
+ */
+class ShardedWriter<T> implements Consumer<Future<List<T>>>, AutoCloseable {
+	private final List<OutputStream> outs = new ArrayList<>();
+	private final List<BatchWriter<T>> writers = new ArrayList<>();
+
+	/**
+	 * Future for one part of a (future) batch
+	 * 
+	 * @param <T> type of the part
+	 */
+	private static class Part<T> implements Future<T> {
+		private final Future<List<T>> batch;
+		private final int shard;
+
+		@Override
+		public boolean cancel(boolean interrupt) {
+			return batch.cancel(interrupt);
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return batch.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return batch.isDone();
+		}
+
+		@Override
+		public T get() throws InterruptedException, ExecutionException {
+			return batch.get().get(shard);
+		}
+
+		@Override
+		public T get(long timeout, TimeUnit unit) 
+				throws InterruptedException, ExecutionException, TimeoutException {
+			return batch.get(timeout, unit).get(shard);
+		}
+
+		/**
+		 * Constructor
+		 * 
+		 * @param batch batch split into shards
+		 * @param shard shard number
+		 */
+		Part(Future<List<T>> batch, int shard) {
+			this.batch = batch;
+			this.shard = shard;
+		}
+	}
+
+	/**
+	 * Queue each part of a (future) batch to the writer of its shard
+	 * 
+	 * @param batch batch, split into one part per shard
+	 */
+	@Override
+	public void accept(Future<List<T>> batch) {
+		for (int i = 0; i < writers.size(); i++) {
+			writers.get(i).accept(new Part<>(batch, i));
+		}
+	}
+
+	/**
+	 * Wait until all parts are written and close the shard files
+	 * 
+	 * @throws IOException 
+	 */
+	@Override
+	public void close() throws IOException {
+		IOException error = null;
+		for (BatchWriter<T> w: writers) {
+			try {
+				w.close();
+			} catch (IOException ioe) {
+				error = (error == null) ? ioe : error;
+			}
+		}
+		for (OutputStream out: outs) {
+			try {
+				out.close();
+			} catch (IOException ioe) {
+				error = (error == null) ? ioe : error;
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Constructor, opens the shard files and starts a writer for each shard.
+	 * 
+	 * @param outputs output files
+	 * @param files shard files
+	 * @param factory function creating a batch writer for an output stream and output file name
+	 * @throws IOException 
+	 */
+	public ShardedWriter(OutputFiles outputs, List<File> files, 
+			BiFunction<OutputStream, String, BatchWriter<T>> factory) throws IOException {
+		try {
+			for (File f: files) {
+				OutputStream out = outputs.open(f);
+				outs.add(out);
+				writers.add(factory.apply(out, f.getName()));
+			}
+		} catch (IOException ioe) {
+			close();
+			throw ioe;
+		}
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes N-Triples to one or more (optionally gzip-compressed) files, 
+ * rolling over to a new part after a number of triples or bytes.
+ * 
+ * When split into parts, data is cut into chunks at line boundaries, so a triple is never split over two parts.
+ * Otherwise chunks are cut on byte count only, so any (e.g. binary) RDF format can be compressed.
+ * Chunks are compressed by a separate thread pool, each chunk becomes a gzip member.
+ * A gzip file containing multiple members is still a valid gzip file.
+ * When split into parts, a manifest listing the parts, number of triples and file size is written as well.
+ * 
+ * Not thread-safe, only one thread should write to the stream.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+class SplitOutputStream extends OutputStream {
+	private final static int CHUNK_SIZE = 1024 * 1024;
+	private final static int MAX_PENDING = 32;
+
+	private final File dir;
+	private final String name;
+	private final String ext;
+	private final boolean gzip;
+	private final long maxBytes;
+	private final long maxTriples;
+	private final ExecutorService pool;
+
+	private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+	private final List<String> manifest = new ArrayList<>();
+
+	private byte[] buf = new byte[CHUNK_SIZE];
+	private int pos = 0;
+
+	// bytes and triples cut for the current part, to decide when to start a new part
+	private long cutBytes = 0;
+	private long cutTriples = 0;
+
+	// current part being written
+	private OutputStream part;
+	private File partFile;
+	private int partNr = 0;
+	private long partTriples = 0;
+
+	/**
+	 * Chunk of N-Triples, possibly compressed
+	 */
+	private static class Chunk {
+		private final byte[] data;
+		private final long triples;
+		private final boolean endOfPart;
+
+		Chunk(byte[] data, long triples, boolean endOfPart) {
+			this.data = data;
+			this.triples = triples;
+			this.endOfPart = endOfPart;
+		}
+	}
+
+	/**
+	 * Check if output is split into parts
+	 * 
+	 * @return true if split
+	 */
+	private boolean isSplit() {
+		return maxBytes > 0 || maxTriples > 0;
+	}
+
+	/**
+	 * Count the number of triples (lines) and compress the data if needed
+	 * 
+	 * @param data N-Triples data
+	 * @param endOfPart true if this is the last chunk of a part
+	 * @return chunk
+	 * @throws IOException 
+	 */
+	private Chunk compress(byte[] data, boolean endOfPart) throws IOException {
+		long triples = 0;
+		for (byte b: data) {
+			if (b == '\n') {
+				triples++;
+			}
+		}
+		if (!gzip) {
+			return new Chunk(data, triples, endOfPart);
+		}
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 4);
+		try (GZIPOutputStream gz = new GZIPOutputStream(bos, 64 * 1024)) {
+			gz.write(data);
+		}
+		return new Chunk(bos.toByteArray(), triples, endOfPart);
+	}
+
+	/**
+	 * Open the next part
+	 * 
+	 * @throws IOException 
+	 */
+	private void openPart() throws IOException {
+		partNr++;
+		String fname = isSplit() ? String.format("%s-%05d%s", name, partNr, ext) : name + ext;
+		partFile = new File(dir, fname);
+		part = new FileOutputStream(partFile);
+		partTriples = 0;
+	}
+
+	/**
+	 * Close the current part and add it to the manifest
+	 * 
+	 * @throws IOException 
+	 */
+	private void closePart() throws IOException {
+		part.close();
+		manifest.add(partFile.getName() + "\t" + partTriples + "\t" + partFile.length());
+		part = null;
+	}
+
+	/**
+	 * Write a converted chunk to the current part
+	 * 
+	 * @param future chunk being compressed
+	 * @throws IOException 
+	 */
+	private void write(Future<Chunk> future) throws IOException {
+		Chunk chunk;
+		try {
+			chunk = future.get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while compressing", ie);
+		} catch (ExecutionException ee) {
+			throw new IOException("Compression failed", ee.getCause());
+		}
+		if (part == null) {
+			openPart();
+		}
+		part.write(chunk.data);
+		partTriples += chunk.triples;
+		if (chunk.endOfPart) {
+			closePart();
+		}
+	}
+
+	/**
+	 * Submit a chunk for compression, and write the chunks that are ready.
+	 * Waits for the oldest chunk when too many chunks are pending.
+	 * 
+	 * @param data N-Triples data
+	 * @param endOfPart true if this is the last chunk of a part
+	 * @throws IOException 
+	 */
+	private void submit(byte[] data, boolean endOfPart) throws IOException {
+		pending.add(pool.submit(() -> compress(data, endOfPart)));
+		while (!pending.isEmpty() && (pending.size() > MAX_PENDING || pending.peek().isDone())) {
+			write(pending.poll());
+		}
+	}
+
+	/**
+	 * Cut the buffer into chunks, ending at a line boundary and at the end of a part when split.
+	 * An incomplete line is kept in the buffer, unless this is the last call or the output is not split.
+	 * 
+	 * @param last true when closing the stream
+	 * @throws IOException 
+	 */
+	private void cut(boolean last) throws IOException {
+		int end = pos;
+		if (!last && isSplit()) {
+			while (end > 0 && buf[end - 1] != '\n') {
+				end--;
+			}
+		}
+
+		int start = 0;
+		while (start < end) {
+			int stop = end;
+			boolean endOfPart = false;
+			if (maxTriples > 0) {
+				for (int i = start; i < end; i++) {
+					if (buf[i] == '\n' && ++cutTriples == maxTriples) {
+						stop = i + 1;
+						endOfPart = true;
+						break;
+					}
+				}
+			}
+			cutBytes += stop - start;
+			if (maxBytes > 0 && cutBytes >= maxBytes) {
+				endOfPart = true;
+			}
+			if (endOfPart) {
+				cutBytes = 0;
+				cutTriples = 0;
+			}
+			submit(Arrays.copyOfRange(buf, start, stop), endOfPart);
+			start = stop;
+		}
+
+		// keep the incomplete line, grow buffer if a single line doesn't fit
+		System.arraycopy(buf, end, buf, 0, pos - end);
+		pos -= end;
+		if (pos == buf.length) {
+			buf = Arrays.copyOf(buf, buf.length * 2);
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		buf[pos++] = (byte) b;
+		if (pos == buf.length) {
+			cut(false);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			int n = Math.min(len, buf.length - pos);
+			System.arraycopy(b, off, buf, pos, n);
+			pos += n;
+			off += n;
+			len -= n;
+			if (pos == buf.length) {
+				cut(false);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		cut(true);
+		while (!pending.isEmpty()) {
+			write(pending.poll());
+		}
+		// always create at least one (empty) file
+		if (partNr == 0) {
+			openPart();
+		}
+		if (part != null) {
+			closePart();
+		}
+		if (isSplit()) {
+			try (PrintWriter w = new PrintWriter(new File(dir, name + ".manifest"), StandardCharsets.UTF_8)) {
+				manifest.forEach(w::println);
+			}
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file output file (e.g. cbe.nt), used as base name for the parts
+	 * @param gzip compress output
+	 * @param maxBytes maximum number of uncompressed bytes per part, or 0
+	 * @param maxTriples maximum number of triples per part, or 0
+	 * @param pool thread pool compressing the chunks
+	 */
+	SplitOutputStream(File file, boolean gzip, long maxBytes, long maxTriples, ExecutorService pool) {
+		String fname = file.getName();
+		int dot = fname.lastIndexOf('.');
+
+		this.dir = file.getAbsoluteFile().getParentFile();
+		this.name = (dot > 0) ? fname.substring(0, dot) : fname;
+		this.ext = ((dot > 0) ? fname.substring(dot) : "") + (gzip ? ".gz" : "");
+		this.gzip = gzip;
+		this.maxBytes = maxBytes;
+		this.maxTriples = maxTriples;
+		this.pool = pool;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the batch writer
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class BatchWriterTest {
+	@Test
+	public void testOrder() throws Exception {
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		AtomicBoolean ended = new AtomicBoolean();
+		List<CompletableFuture<Integer>> batches = new ArrayList<>();
+
+		try (BatchWriter<Integer> w = new BatchWriter<>(written::add, () -> ended.set(true), 
+				100, "test-writer", new RunMetrics.Stats())) {
+			for (int i = 0; i < 50; i++) {
+				CompletableFuture<Integer> batch = new CompletableFuture<>();
+				batches.add(batch);
+				w.accept(batch);
+			}
+			// complete the batches in reverse order
+			for (int i = 49; i >= 0; i--) {
+				batches.get(i).complete(i);
+			}
+		}
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			expected.add(i);
+		}
+		assertEquals(expected, written);
+		assertTrue(ended.get());
+	}
+
+	@Test
+	public void testFailedBatch() throws Exception {
+		List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+		AtomicBoolean ended = new AtomicBoolean();
+
+		BatchWriter<Integer> w = new BatchWriter<>(written::add, () -> ended.set(true), 
+				10, "test-writer", new RunMetrics.Stats());
+		w.accept(CompletableFuture.completedFuture(1));
+		w.accept(CompletableFuture.failedFuture(new IllegalArgumentException("bad row")));
+		w.accept(CompletableFuture.completedFuture(3));
+
+		IOException ioe = assertThrows(IOException.class, w::close);
+		assertTrue(ioe.getCause().getMessage().contains("bad row"));
+		assertEquals(List.of(1), written);
+		assertFalse(ended.get());
+	}
+
+	@Test
+	public void testFailedWriter() throws Exception {
+		BatchWriter<Integer> w = new BatchWriter<>(b -> { throw new IllegalStateException("disk full"); }, 
+				() -> {}, 2, "test-writer", new RunMetrics.Stats());
+
+		// producers must not block forever once the writer is gone
+		assertThrows(IllegalStateException.class, () -> {
+			for (int i = 0; i < 100; i++) {
+				w.accept(CompletableFuture.completedFuture(i));
+			}
+		});
+		assertThrows(IOException.class, w::close);
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.converter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.file.Path;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the split output stream
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class SplitOutputStreamTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	public void testGzipBinary() throws IOException {
+		// binary data, only a few line feeds and no line feed at all in the last megabytes
+		byte[] data = new byte[5 * 1024 * 1024];
+		new Random(42).nextBytes(data);
+		for (int i = 0; i < data.length; i++) {
+			if (data[i] == '\n') {
+				data[i] = (i < 1024) ? data[i] : 0;
+			}
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try (OutputStream out = new SplitOutputStream(new File(dir.toFile(), "cbe.brf"), true, 0, 0, pool)) {
+			for (int i = 0; i < data.length; i += 1000) {
+				out.write(data, i, Math.min(1000, data.length - i));
+			}
+		} finally {
+			pool.shutdown();
+		}
+		try (InputStream in = new GZIPInputStream(new FileInputStream(new File(dir.toFile(), "cbe.brf.gz")))) {
+			assertArrayEquals(data, in.readAllBytes());
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Timeout based on the observed response times, similar to the TCP retransmission timeout:
+ * 2 * (smoothed response time + 4 * mean deviation), between a minimum and a maximum.
+ * This is twice the TCP value, leaving some headroom for responses slowing down under load.
+ * 
+ * Calls that are a lot slower than usual are cut off early, instead of waiting for a fixed long timeout.
+ * The timeout is doubled after every timeout, so it recovers when the remote service has become slower.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class AdaptiveTimeout {
+	private final long min;
+	private final long max;
+
+	private double smoothed = -1;
+	private double deviation = 0;
+	private long timeout;
+
+	/**
+	 * Register the response time of a successful call, and set the timeout to
+	 * 2 * (smoothed + 4 * deviation)
+	 * 
+	 * @param nanos response time in nanoseconds
+	 */
+	public synchronized void success(long nanos) {
+		if (smoothed < 0) {
+			smoothed = nanos;
+			deviation = nanos / 2.0;
+		} else {
+			deviation = 0.75 * deviation + 0.25 * Math.abs(smoothed - nanos);
+			smoothed = 0.875 * smoothed + 0.125 * nanos;
+		}
+		timeout = Math.min(max, Math.max(min, (long) (2 * (smoothed + 4 * deviation))));
+	}
+
+	/**
+	 * Register a call that timed out, doubling the timeout
+	 */
+	public synchronized void timedOut() {
+		timeout = Math.min(max, timeout * 2);
+	}
+
+	/**
+	 * Get current timeout
+	 * 
+	 * @return timeout
+	 */
+	public synchronized Duration timeout() {
+		return Duration.ofNanos(timeout);
+	}
+
+	/**
+	 * Get statistics, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public synchronized Map<String, Number> stats() {
+		Map<String, Number> stats = new LinkedHashMap<>();
+		stats.put("response_ms", (long) Math.max(0, smoothed) / 1_000_000);
+		stats.put("timeout_ms", timeout / 1_000_000);
+		return stats;
+	}
+
+	/**
+	 * Constructor, the timeout is the maximum until the first response time is known
+	 * 
+	 * @param min minimum timeout
+	 * @param max maximum timeout
+	 */
+	public AdaptiveTimeout(Duration min, Duration max) {
+		this.min = min.toNanos();
+		this.max = max.toNanos();
+		this.timeout = this.max;
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous calls running at the same time, without blocking threads.
+ * Calls exceeding the limit wait in a bounded queue and are started when another call completes,
+ * calls that don't fit in the queue or wait longer than the queue timeout are rejected.
+ * 
+ * Queued calls are started in a loop by the thread giving back a permit, 
+ * so calls failing synchronously don't cause a deep recursion.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class AsyncLimiter {
+	private final int maxActive;
+	private final int maxQueued;
+	private final long queueTimeout;
+	private final Queue<Pending> queue = new ArrayDeque<>();
+
+	private int active = 0;
+	private boolean draining = false;
+	private long started = 0;
+	private long rejected = 0;
+	private long expired = 0;
+	private int peak = 0;
+
+	/**
+	 * Queued call
+	 * 
+	 * @param task starts the call
+	 * @param result future result of the call
+	 */
+	private record Pending(Runnable task, CompletableFuture<?> result) {
+	}
+
+	/**
+	 * Submit a call, starting it immediately if the limit is not reached yet
+	 * 
+	 * @param <T> type of result
+	 * @param call starts the asynchronous call
+	 * @return future result, failing with a RejectedExecutionException when the queue is full
+	 * or the call was queued for too long
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<? extends CompletionStage<T>> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Runnable task = () -> start(call, result);
+
+		synchronized (this) {
+			// queue behind calls that are waiting, even if a permit was just given back
+			if (active >= maxActive || !queue.isEmpty()) {
+				if (queue.size() >= maxQueued) {
+					rejected++;
+					result.completeExceptionally(new RejectedExecutionException("Too many pending calls"));
+				} else {
+					Pending pending = new Pending(task, result);
+					queue.add(pending);
+					if (queueTimeout > 0) {
+						CompletableFuture.delayedExecutor(queueTimeout, TimeUnit.NANOSECONDS)
+											.execute(() -> expire(pending));
+					}
+				}
+				return result;
+			}
+			active++;
+			started++;
+			peak = Math.max(peak, active);
+		}
+		task.run();
+		return result;
+	}
+
+	/**
+	 * Fail a call that is still queued after the queue timeout
+	 * 
+	 * @param pending queued call
+	 */
+	private void expire(Pending pending) {
+		synchronized (this) {
+			if (!queue.remove(pending)) {
+				return;
+			}
+			expired++;
+		}
+		pending.result.completeExceptionally(new RejectedExecutionException("Queued for too long"));
+	}
+
+	/**
+	 * Start the call and release the permit when it is done
+	 * 
+	 * @param <T> type of result
+	 * @param call starts the asynchronous call
+	 * @param result future result
+	 */
+	private <T> void start(Supplier<? extends CompletionStage<T>> call, CompletableFuture<T> result) {
+		CompletionStage<T> stage;
+		try {
+			stage = call.get();
+		} catch (RuntimeException e) {
+			release();
+			result.completeExceptionally(e);
+			return;
+		}
+		stage.whenComplete((v, t) -> {
+			release();
+			if (t != null) {
+				result.completeExceptionally(t);
+			} else {
+				result.complete(v);
+			}
+		});
+	}
+
+	/**
+	 * Give back the permit and start queued calls, as long as there are permits available.
+	 * Only one thread at a time starts queued calls: a permit given back while another thread 
+	 * (or the same thread, when a call completes synchronously) is starting calls, is picked up by that thread.
+	 */
+	private void release() {
+		synchronized (this) {
+			active--;
+			if (draining) {
+				return;
+			}
+			draining = true;
+		}
+		while (true) {
+			Pending next;
+			synchronized (this) {
+				if (active >= maxActive || (next = queue.poll()) == null) {
+					draining = false;
+					return;
+				}
+				active++;
+				started++;
+			}
+			next.task.run();
+		}
+	}
+
+	/**
+	 * Get statistics, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public synchronized Map<String, Number> stats() {
+		Map<String, Number> stats = new LinkedHashMap<>();
+		stats.put("active", active);
+		stats.put("queued", queue.size());
+		stats.put("peak", peak);
+		stats.put("started", started);
+		stats.put("rejected", rejected);
+		stats.put("expired", expired);
+		return stats;
+	}
+
+	/**
+	 * Constructor, queued calls wait until they can be started
+	 * 
+	 * @param maxActive maximum number of calls running at the same time
+	 * @param maxQueued maximum number of calls waiting to be started
+	 */
+	public AsyncLimiter(int maxActive, int maxQueued) {
+		this(maxActive, maxQueued, Duration.ZERO);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param maxActive maximum number of calls running at the same time
+	 * @param maxQueued maximum number of calls waiting to be started
+	 * @param queueTimeout maximum time a call waits in the queue, zero to wait until it can be started
+	 */
+	public AsyncLimiter(int maxActive, int maxQueued, Duration queueTimeout) {
+		this.maxActive = maxActive;
+		this.maxQueued = maxQueued;
+		this.queueTimeout = queueTimeout.toNanos();
+	}
+}
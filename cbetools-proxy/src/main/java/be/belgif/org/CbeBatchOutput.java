@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+/**
+ * Writes a batch of organizations or sites (establishment units) as one RDF graph, 
+ * e.g. an organization and all its sites.
+ * 
+ * The entities are fetched concurrently, with a maximum number of calls per request 
+ * (on top of the global limit of calls to the CBE website).
+ * N-Triples are written to the client as soon as each entity arrives, in order of arrival
+ * (using chunked transfer encoding, since the length is not known in advance).
+ * JSON-LD can only be written when all entities have arrived.
+ * Entities that could not be retrieved and notes about the batch itself (e.g. an incomplete list of sites)
+ * are reported as N-Triples comments, or as comments on a blank node in other formats.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+class CbeBatchOutput implements StreamingOutput {
+	private final static ValueFactory F = SimpleValueFactory.getInstance();
+
+	private final byte[] head;
+	private final List<String> notes;
+	private final List<String> ids;
+	private final Function<String, CompletableFuture<byte[]>> lookup;
+	private final RDFFormat fmt;
+	private final int parallelism;
+
+	private volatile boolean closed = false;
+
+	/**
+	 * Result of a single entity
+	 */
+	private record Result(String id, byte[] rdf, Throwable error) {
+	}
+
+	@Override
+	public void write(OutputStream out) throws IOException {
+		BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+		AsyncLimiter limiter = new AsyncLimiter(parallelism, Integer.MAX_VALUE);
+
+		for (String id: ids) {
+			limiter.submit(() -> closed ? CompletableFuture.<byte[]>failedFuture(new CancellationException())
+										: lookup.apply(id))
+				.whenComplete((rdf, t) -> results.add(new Result(id, rdf, t)));
+		}
+
+		try {
+			if (fmt == RDFFormat.NTRIPLES) {
+				writeNTriples(out, results);
+			} else {
+				writeDocument(out, results);
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for results");
+		} finally {
+			// e.g. client disconnected: don't start remaining calls
+			closed = true;
+		}
+	}
+
+	/**
+	 * Write all entities as N-Triples, flushing whenever no other entity is ready
+	 * 
+	 * @param out output stream
+	 * @param results queue of (future) results
+	 * @throws IOException
+	 * @throws InterruptedException 
+	 */
+	private void writeNTriples(OutputStream out, BlockingQueue<Result> results) 
+			throws IOException, InterruptedException {
+		if (head != null) {
+			out.write(head);
+		}
+		for (String note: notes) {
+			out.write(("# " + note + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+		out.flush();
+
+		for (int i = 0; i < ids.size(); i++) {
+			Result res = results.take();
+			if (res.error() == null) {
+				out.write(res.rdf());
+			} else {
+				out.write(("# " + message(res) + "\n").getBytes(StandardCharsets.UTF_8));
+			}
+			if (results.isEmpty()) {
+				out.flush();
+			}
+		}
+	}
+
+	/**
+	 * Pass the statements of all entities to a single RDF writer, 
+	 * which writes them as one document (e.g. JSON-LD).
+	 * Failures and notes are added at the end, as comments on a blank node.
+	 * 
+	 * @param out output stream
+	 * @param results queue of (future) results
+	 * @throws IOException
+	 * @throws InterruptedException 
+	 */
+	private void writeDocument(OutputStream out, BlockingQueue<Result> results) 
+			throws IOException, InterruptedException {
+		RDFWriter w = CbeRdfWriter.createWriter(out, fmt);
+		RDFParser parser = Rio.createParser(RDFFormat.NTRIPLES);
+		// don't start / end the document for every entity
+		parser.setRDFHandler(new AbstractRDFHandler() {
+			@Override
+			public void handleStatement(Statement st) {
+				w.handleStatement(st);
+			}
+		});
+
+		List<String> messages = new ArrayList<>(notes);
+
+		w.startRDF();
+		if (head != null) {
+			parser.parse(new ByteArrayInputStream(head));
+		}
+		for (int i = 0; i < ids.size(); i++) {
+			Result res = results.take();
+			if (res.error() == null) {
+				parser.parse(new ByteArrayInputStream(res.rdf()));
+			} else {
+				messages.add(message(res));
+			}
+		}
+		if (!messages.isEmpty()) {
+			Resource status = F.createBNode();
+			for (String msg: messages) {
+				w.handleStatement(F.createStatement(status, RDFS.COMMENT, F.createLiteral(msg)));
+			}
+		}
+		w.endRDF();
+	}
+
+	/**
+	 * Get error message for an entity that could not be retrieved
+	 * 
+	 * @param res result
+	 * @return message
+	 */
+	private static String message(Result res) {
+		Throwable t = res.error();
+		Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+		if (cause instanceof NotFoundException) {
+			return cause.getMessage();
+		}
+		return ("Could not get " + res.id() + ": " + cause.getMessage()).replaceAll("[\\r\\n]+", " ");
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param head N-Triples to write first (e.g. organization of the sites), or null
+	 * @param notes notes about the batch, can be empty
+	 * @param ids CBE IDs
+	 * @param lookup returns future N-Triples for a CBE ID
+	 * @param fmt RDF format
+	 * @param parallelism maximum number of entities being fetched at the same time
+	 */
+	CbeBatchOutput(byte[] head, List<String> notes, List<String> ids, 
+					Function<String, CompletableFuture<byte[]>> lookup, RDFFormat fmt, int parallelism) {
+		this.head = head;
+		this.notes = notes;
+		this.ids = ids;
+		this.lookup = lookup;
+		this.fmt = fmt;
+		this.parallelism = parallelism;
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * In-memory cache of serialized responses, keyed by CBE ID and media type.
+ * 
+ * Entries are kept in a number of small LRU segments and expire after a configurable time.
+ * Unknown IDs are cached as well (negative caching), usually for a shorter time,
+ * so repeated requests for a non-existing number don't reach the CBE website.
+ * Expired entries are kept for a while, and returned (stale) when the CBE website can't be reached.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@Singleton
+public class CbeCache {
+	private final static int SEGMENTS = 16;
+	private final static byte[] NOT_FOUND = new byte[0];
+
+	private final Segment[] segments;
+	private final long ttl;
+	private final long negativeTtl;
+	private final long staleTtl;
+	private final LongSupplier clock;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder negativeHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder expired = new LongAdder();
+	private final LongAdder staleHits = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+
+	/**
+	 * Cached value with expiration time
+	 */
+	private static class Entry {
+		private final byte[] value;
+		private final long expires;
+
+		Entry(byte[] value, long expires) {
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * Access-ordered hash map, removing the least recently used entry when full
+	 */
+	private class Segment extends LinkedHashMap<String, Entry> {
+		private final int max;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if (size() > max) {
+				evicted.increment();
+				return true;
+			}
+			return false;
+		}
+
+		Segment(int max) {
+			super(16, 0.75f, true);
+			this.max = max;
+		}
+	}
+
+	/**
+	 * Get segment for a key
+	 * 
+	 * @param key key
+	 * @return segment
+	 */
+	private Segment segment(String key) {
+		int h = key.hashCode();
+		return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+	}
+
+	/**
+	 * Check if the cache is enabled
+	 * 
+	 * @return false if the size is set to 0
+	 */
+	public boolean isEnabled() {
+		return segments.length > 0;
+	}
+
+	/**
+	 * Get a value from the cache, or load and cache it when not present or expired.
+	 * The loader returns null when the ID is unknown, this is cached using the negative TTL.
+	 * Failed loads are not cached, the expired value is returned instead when still available.
+	 * 
+	 * @param key key (ID and media type)
+	 * @param loader loads the serialized response asynchronously
+	 * @return future serialized response, null when unknown
+	 */
+	public CompletableFuture<byte[]> get(String key, Supplier<CompletableFuture<byte[]>> loader) {
+		if (!isEnabled()) {
+			return loader.get();
+		}
+		Segment s = segment(key);
+		long now = clock.getAsLong();
+		Entry stale = null;
+
+		synchronized (s) {
+			Entry e = s.get(key);
+			if (e != null) {
+				if (now - e.expires < 0) {
+					if (e.value == NOT_FOUND) {
+						negativeHits.increment();
+						return CompletableFuture.completedFuture(null);
+					}
+					hits.increment();
+					return CompletableFuture.completedFuture(e.value);
+				}
+				if (now - (e.expires + staleTtl) < 0) {
+					stale = e;
+				} else {
+					s.remove(key);
+				}
+				expired.increment();
+			}
+		}
+		misses.increment();
+
+		Entry fallback = stale;
+		return loader.get().handle((value, t) -> {
+			if (t != null) {
+				if (fallback == null) {
+					throw (t instanceof CompletionException) ? (CompletionException) t : new CompletionException(t);
+				}
+				staleHits.increment();
+				return (fallback.value != NOT_FOUND) ? fallback.value : null;
+			}
+			long expires = clock.getAsLong() + (value != null ? ttl : negativeTtl);
+			synchronized (s) {
+				s.put(key, new Entry(value != null ? value : NOT_FOUND, expires));
+			}
+			return value;
+		});
+	}
+
+	/**
+	 * Remove all entries
+	 */
+	public void clear() {
+		for (Segment s: segments) {
+			synchronized (s) {
+				s.clear();
+			}
+		}
+	}
+
+	/**
+	 * Get number of cached entries, including expired entries not yet removed
+	 * 
+	 * @return number of entries
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment s: segments) {
+			synchronized (s) {
+				size += s.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Get statistics, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public Map<String, Number> stats() {
+		long h = hits.sum();
+		long n = negativeHits.sum();
+		long m = misses.sum();
+		long total = h + n + m;
+
+		Map<String, Number> stats = new LinkedHashMap<>();
+		stats.put("size", size());
+		stats.put("hits", h);
+		stats.put("negative_hits", n);
+		stats.put("misses", m);
+		stats.put("expired", expired.sum());
+		stats.put("evicted", evicted.sum());
+		stats.put("stale_hits", staleHits.sum());
+		stats.put("hit_rate", total > 0 ? (double) (h + n) / total : 0.0);
+		return stats;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param size maximum number of entries, 0 to disable the cache
+	 * @param ttl time to live of a response
+	 * @param negativeTtl time to live of an unknown ID
+	 * @param staleTtl time an expired entry is kept as fallback, 0 to remove expired entries
+	 * @param clock time source in nanoseconds
+	 */
+	CbeCache(int size, Duration ttl, Duration negativeTtl, Duration staleTtl, LongSupplier clock) {
+		this.ttl = ttl.toNanos();
+		this.negativeTtl = negativeTtl.toNanos();
+		this.staleTtl = staleTtl.toNanos();
+		this.clock = clock;
+		this.segments = new Segment[size > 0 ? SEGMENTS : 0];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new Segment(Math.max(1, size / SEGMENTS));
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param size maximum number of entries, 0 to disable the cache
+	 * @param ttl time to live of a response
+	 * @param negativeTtl time to live of an unknown ID
+	 * @param staleTtl time an expired entry is kept as fallback, 0 to remove expired entries
+	 */
+	@Inject
+	public CbeCache(@ConfigProperty(name = "be.belgif.org.cache.size") int size,
+					@ConfigProperty(name = "be.belgif.org.cache.ttl") Duration ttl,
+					@ConfigProperty(name = "be.belgif.org.cache.negative-ttl") Duration negativeTtl,
+					@ConfigProperty(name = "be.belgif.org.cache.stale-ttl") Duration staleTtl) {
+		this(size, ttl, negativeTtl, staleTtl, System::nanoTime);
+	}
+}
@@ -26,7 +26,9 @@
 package be.belgif.org;
 
 import be.belgif.org.dao.CbeOrganization;
+import be.belgif.org.dao.CbeSiteList;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MediaType;
@@ -36,17 +38,27 @@ import jakarta.ws.rs.ext.Provider;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
 import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 
 
 /**
@@ -100,6 +112,28 @@ public class CbeHtmlReader implements MessageBodyReader<CbeOrganization> {
 	@ConfigProperty(name = "be.belgif.org.html.org.nsso.activity_old")
 	protected String NSSO_OLD_ACTIVITY;
 
+	@ConfigProperty(name = "be.belgif.org.html.sitelist.site")
+	protected String SITELIST_SITE;
+
+	@ConfigProperty(name = "be.belgif.org.html.sitelist.next")
+	protected String SITELIST_NEXT;
+
+	private Evaluator tableGeneral;
+	private Evaluator generalIdOrg;
+	private Evaluator generalIdSite;
+	private Evaluator generalNames;
+	private Evaluator generalAbbrevs;
+	private Evaluator generalEmail;
+	private Evaluator generalWebsite;
+	private Evaluator langNl;
+	private Evaluator langFr;
+	private Evaluator langDe;
+	private Evaluator vatActivity;
+	private Evaluator nssoActivity;
+	private Evaluator nssoOldActivity;
+	private Evaluator sitelistSite;
+	private Evaluator sitelistNext;
+
 	@Override
 	public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
 		return genericType.equals(CbeOrganization.class);
@@ -112,25 +146,90 @@ public class CbeHtmlReader implements MessageBodyReader<CbeOrganization> {
 		return parseOrganization(in);
 	}
 	
+	/**
+	 * Compile the CSS selectors once, instead of parsing them again for every page
+	 */
+	@PostConstruct
+	protected void init() {
+		tableGeneral = QueryParser.parse(TABLE_GENERAL);
+		generalIdOrg = QueryParser.parse(GENERAL_ID_ORG);
+		generalIdSite = QueryParser.parse(GENERAL_ID_SITE);
+		generalNames = QueryParser.parse(GENERAL_NAMES);
+		generalAbbrevs = QueryParser.parse(GENERAL_ABBREVS);
+		generalEmail = QueryParser.parse(GENERAL_EMAIL);
+		generalWebsite = QueryParser.parse(GENERAL_WEBSITE);
+		langNl = QueryParser.parse(LANG_NL);
+		langFr = QueryParser.parse(LANG_FR);
+		langDe = QueryParser.parse(LANG_DE);
+		vatActivity = QueryParser.parse(VAT_ACTIVITY);
+		nssoActivity = QueryParser.parse(NSSO_ACTIVITY);
+		nssoOldActivity = QueryParser.parse(NSSO_OLD_ACTIVITY);
+		sitelistSite = QueryParser.parse(SITELIST_SITE);
+		sitelistNext = QueryParser.parse(SITELIST_NEXT);
+	}
+
+	/**
+	 * Set names or abbreviations per language
+	 * 
+	 * @param el element containing the names
+	 * @param setter sets the name for a language
+	 * @param empty true when no name was set for any language
+	 */
+	private void setNames(Element el, BiConsumer<String, String> setter, BooleanSupplier empty) {
+		Elements els = el.select(new Evaluator.MatchText());
+		for(int i = 1; i < els.size(); i += 2) {
+			String val = els.get(i-1).text().trim();
+			if (els.get(i).selectFirst(langNl) != null) setter.accept("nl", val);
+			if (els.get(i).selectFirst(langFr) != null) setter.accept("fr", val);
+			if (els.get(i).selectFirst(langDe) != null) setter.accept("de", val);
+		}
+		if (empty.getAsBoolean()) {
+			setter.accept("", el.text());
+		}
+	}
+
 	/**
 	 * Parse the HTML page about an organization (company, public service...)
 	 * 
+	 * The page is parsed as a stream until the general table is complete, the rest of the page is skipped.
+	 * All fields are then extracted in one traversal of the table, using the precompiled selectors.
+	 * 
 	 * @param in
-	 * @return
+	 * @return organization, without ID when not found
 	 * @throws IOException 
 	 */
-	private CbeOrganization parseOrganization(InputStream in) throws IOException {		
+	public CbeOrganization parseOrganization(InputStream in) throws IOException {		
 		CbeOrganization org = new CbeOrganization();
 
-		Document doc = Jsoup.parse(in, StandardCharsets.UTF_8.toString(), BASEURL);
-		Element table = doc.selectFirst(TABLE_GENERAL);
-		Element orgId = table.selectFirst(GENERAL_ID_ORG);
-		Element siteId = table.selectFirst(GENERAL_ID_SITE);
-		
-		Element names = table.selectFirst(GENERAL_NAMES);
-		Element abbrevs = table.selectFirst(GENERAL_ABBREVS);
-		Element email = table.selectFirst(GENERAL_EMAIL);
-		Element website = table.selectFirst(GENERAL_WEBSITE);
+		Element table;
+		try (StreamParser streamer = new StreamParser(Parser.htmlParser())) {
+			streamer.parse(new InputStreamReader(in, StandardCharsets.UTF_8), BASEURL);
+			// elements are only returned when complete
+			table = streamer.selectNext(tableGeneral);
+		}
+		if (table == null) {
+			// unknown ID: page without general info
+			return org;
+		}
+
+		Element orgId = null;
+		Element siteId = null;
+		Element names = null;
+		Element abbrevs = null;
+		Element email = null;
+		Element website = null;
+
+		for (Element el: table.getAllElements()) {
+			if (orgId == null && generalIdOrg.matches(table, el)) orgId = el;
+			if (siteId == null && generalIdSite.matches(table, el)) siteId = el;
+			if (names == null && generalNames.matches(table, el)) names = el;
+			if (abbrevs == null && generalAbbrevs.matches(table, el)) abbrevs = el;
+			if (email == null && generalEmail.matches(table, el)) email = el;
+			if (website == null && generalWebsite.matches(table, el)) website = el;
+			if (vatActivity.matches(table, el)) org.setVatActivity(el.text());
+			if (nssoActivity.matches(table, el)) org.setNssActivity(el.text());
+			if (nssoOldActivity.matches(table, el)) org.setNssOldActivity(el.text());
+		}
 
 		if (siteId == null) {
 			org.setParentId(null);
@@ -141,52 +240,40 @@ public class CbeHtmlReader implements MessageBodyReader<CbeOrganization> {
 		}
 
 		if (names != null) {
-			Elements els = names.select(new Evaluator.MatchText());
-			for(int i = 1; i < els.size(); i += 2) {
-				String val = els.get(i-1).text().trim();
-				if (els.get(i).selectFirst(LANG_NL) != null) org.setName("nl", val);
-				if (els.get(i).selectFirst(LANG_FR) != null) org.setName("fr", val);
-				if (els.get(i).selectFirst(LANG_DE) != null) org.setName("de", val);
-			}
-			if (org.getNames().isEmpty()) {
-				org.setName("", names.text());
-			}
+			setNames(names, org::setName, org.getNames()::isEmpty);
 		}
-
 		if (abbrevs != null) {
-			Elements els = abbrevs.select(new Evaluator.MatchText());
-			for(int i = 1; i < els.size(); i += 2) {
-				String val = els.get(i-1).text().trim();
-				if (els.get(i).selectFirst(LANG_NL) != null) org.setAbbrev("nl", val);
-				if (els.get(i).selectFirst(LANG_FR) != null) org.setAbbrev("fr", val);
-				if (els.get(i).selectFirst(LANG_DE) != null) org.setAbbrev("de", val);
-			}
-			if (org.getAbbrevs().isEmpty()) {
-				org.setAbbrev("", abbrevs.text());
-			}
+			setNames(abbrevs, org::setAbbrev, org.getAbbrevs()::isEmpty);
 		}
-
 		if (email != null) {
 			org.setEmail(email.attr("href").trim());
 		}
-	
 		if (website != null) {
 			org.setWebsite(website.attr("href").trim());
 		}
-		
-		Elements vatActivities = table.select(VAT_ACTIVITY);
-		for (Element act: vatActivities) {
-			org.setVatActivity(act.text());
-		}
-		Elements nssActivities = table.select(NSSO_ACTIVITY);
-		for (Element act: nssActivities) {
-			org.setNssActivity(act.text());
-		}
-		Elements nssOldActivities = table.select(NSSO_OLD_ACTIVITY);
-		for (Element act: nssOldActivities) {
-			org.setNssOldActivity(act.text());
-		}
-	
 		return org;
 	}
+
+	/**
+	 * Parse one HTML page listing the sites (establishment units) of an organization
+	 * 
+	 * @param in
+	 * @param url URL of the page, used to resolve the link to the next page
+	 * @return list of site IDs, without dots, in order of appearance, and URL of the next page (if any)
+	 * @throws IOException 
+	 */
+	public CbeSiteList parseSiteList(InputStream in, String url) throws IOException {
+		Set<String> ids = new LinkedHashSet<>();
+
+		Document doc = Jsoup.parse(in, StandardCharsets.UTF_8.name(), url);
+		for (Element link: doc.select(sitelistSite)) {
+			String id = link.text().replace(".", "").trim();
+			if (!id.isEmpty() && id.chars().allMatch(Character::isDigit)) {
+				ids.add(id);
+			}
+		}
+		Element next = doc.selectFirst(sitelistNext);
+		String nextUrl = (next != null) ? next.absUrl("href") : "";
+		return new CbeSiteList(new ArrayList<>(ids), nextUrl.isEmpty() ? null : nextUrl);
+	}
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Local, memory-mapped index of the N-Triples produced by cbetools-converter,
+ * built with its IndexBuilder.
+ * 
+ * cbe-index.nt contains the triples about each enterprise or establishment as one block, 
+ * cbe-index.idx a header (magic number, number of entries) followed by one 24 byte entry per entity, 
+ * ordered by CBE number: CBE number (long), offset (long) and length (int) of the block, and kind (int).
+ * Lookups are binary searches on the mapped index, so nothing has to be loaded in memory.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@Singleton
+public class CbeLocalIndex {
+	private final static Logger LOG = Logger.getLogger(CbeLocalIndex.class);
+
+	public final static int ORG = 0;
+	public final static int SITE = 1;
+
+	private final static long MAGIC = 0x4342454944583031L; // CBEIDX01
+	private final static int HEADER = 16;
+	private final static int ENTRY = 24;
+	private final static long CHUNK = 1L << 30;
+	private final static int ID_LENGTH = 10;
+
+	@ConfigProperty(name = "be.belgif.org.index.dir")
+	protected Optional<String> DIR;
+
+	private ByteBuffer index;
+	private ByteBuffer[] data;
+	private int entries = 0;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	@PostConstruct
+	void init() {
+		if (DIR.isPresent()) {
+			try {
+				open(Path.of(DIR.get()));
+			} catch (IOException ioe) {
+				throw new UncheckedIOException("Could not open index in " + DIR.get(), ioe);
+			}
+		}
+	}
+
+	/**
+	 * Map the index and data files in memory.
+	 * The data file is mapped in chunks, since a single buffer is limited to 2 GB.
+	 * 
+	 * @param dir directory containing the index files
+	 * @throws IOException 
+	 */
+	void open(Path dir) throws IOException {
+		try (FileChannel ch = FileChannel.open(dir.resolve("cbe-index.idx"), StandardOpenOption.READ)) {
+			if (ch.size() > Integer.MAX_VALUE) {
+				throw new IOException("Index too large");
+			}
+			index = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+		}
+		if (index.limit() < HEADER || index.getLong(0) != MAGIC) {
+			throw new IOException("Not a CBE index file");
+		}
+		long count = index.getLong(8);
+		if (index.limit() != HEADER + count * ENTRY) {
+			throw new IOException("Index file truncated");
+		}
+		try (FileChannel ch = FileChannel.open(dir.resolve("cbe-index.nt"), StandardOpenOption.READ)) {
+			long size = ch.size();
+			data = new ByteBuffer[(int) ((size + CHUNK - 1) / CHUNK)];
+			for (int i = 0; i < data.length; i++) {
+				data[i] = ch.map(FileChannel.MapMode.READ_ONLY, i * CHUNK, Math.min(CHUNK, size - i * CHUNK));
+			}
+		}
+		entries = (int) count;
+		LOG.infof("Opened local index %s, %d entries", dir, entries);
+	}
+
+	/**
+	 * Check if the local index is enabled
+	 * 
+	 * @return true if an index is available
+	 */
+	public boolean isEnabled() {
+		return entries > 0;
+	}
+
+	/**
+	 * Find the entry for a CBE number
+	 * 
+	 * @param key CBE number
+	 * @return position of the entry or -1
+	 */
+	private int find(long key) {
+		int lo = 0;
+		int hi = entries - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			long k = index.getLong(HEADER + mid * ENTRY);
+			if (k < key) {
+				lo = mid + 1;
+			} else if (k > key) {
+				hi = mid - 1;
+			} else {
+				return HEADER + mid * ENTRY;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Read bytes from the data file, possibly spanning two chunks
+	 * 
+	 * @param offset offset
+	 * @param len length
+	 * @return bytes
+	 */
+	private byte[] read(long offset, int len) {
+		byte[] b = new byte[len];
+		int done = 0;
+		while (done < len) {
+			ByteBuffer chunk = data[(int) ((offset + done) / CHUNK)];
+			int pos = (int) ((offset + done) % CHUNK);
+			int n = Math.min(len - done, chunk.limit() - pos);
+			chunk.get(pos, b, done, n);
+			done += n;
+		}
+		return b;
+	}
+
+	/**
+	 * Check if an ID has exactly 10 digits, like the CBE numbers in the index.
+	 * Other IDs are not looked up, otherwise e.g. 671516647 would match 0671516647.
+	 * 
+	 * @param id CBE ID
+	 * @return true if valid
+	 */
+	private static boolean isValid(String id) {
+		if (id.length() != ID_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < ID_LENGTH; i++) {
+			if (id.charAt(i) < '0' || id.charAt(i) > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the N-Triples about an enterprise or establishment
+	 * 
+	 * @param kind kind of entity, ORG or SITE
+	 * @param id CBE ID (10 digits)
+	 * @return N-Triples or null when not found or not a 10 digit ID
+	 */
+	public byte[] get(int kind, String id) {
+		if (!isEnabled() || !isValid(id)) {
+			return null;
+		}
+		int pos = find(Long.parseLong(id));
+		if (pos < 0 || index.getInt(pos + 20) != kind) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return read(index.getLong(pos + 8), index.getInt(pos + 16));
+	}
+
+	/**
+	 * Get statistics, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public Map<String, Number> stats() {
+		Map<String, Number> stats = new LinkedHashMap<>();
+		stats.put("entries", entries);
+		stats.put("hits", hits.sum());
+		stats.put("misses", misses.sum());
+		return stats;
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import be.belgif.org.dao.CbeOrganization;
+import be.belgif.org.dao.CbeSiteList;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+
+/**
+ * Looks up organizations and sites and returns them as serialized RDF.
+ * The local index is used when available, the CBE website is only used for IDs missing from the index
+ * (using the cache when possible).
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@Singleton
+public class CbeLookup {
+	public final static MediaType NTRIPLES = MediaType.valueOf("application/n-triples");
+	public final static MediaType JSONLD = MediaType.valueOf("application/ld+json");
+
+	@Inject
+	CbePublicSearch pubSearch;
+
+	@Inject
+	CbeRdfWriter writer;
+
+	@Inject
+	CbeCache cache;
+
+	@Inject
+	CbeLocalIndex index;
+
+	private final SingleFlight<String, CbeOrganization> flights = new SingleFlight<>();
+
+	/**
+	 * Get RDF format for a media type
+	 * 
+	 * @param type media type
+	 * @return RDF format
+	 */
+	public static RDFFormat format(MediaType type) {
+		return NTRIPLES.isCompatible(type) ? RDFFormat.NTRIPLES : RDFFormat.JSONLD;
+	}
+
+	/**
+	 * Get organization as RDF
+	 * 
+	 * @param id CBE ID of the organization
+	 * @param fmt RDF format
+	 * @return future serialized RDF, failing with NotFoundException when ID is unknown
+	 */
+	public CompletableFuture<byte[]> org(String id, RDFFormat fmt) {
+		return get("org", CbeLocalIndex.ORG, id, fmt, pubSearch::getOrgById);
+	}
+
+	/**
+	 * Get site (establishment unit) as RDF
+	 * 
+	 * @param id CBE ID of the site
+	 * @param fmt RDF format
+	 * @return future serialized RDF, failing with NotFoundException when ID is unknown
+	 */
+	public CompletableFuture<byte[]> site(String id, RDFFormat fmt) {
+		return get("site", CbeLocalIndex.SITE, id, fmt, pubSearch::getSiteById);
+	}
+
+	/**
+	 * Get the IDs of the sites (establishment units) of an organization, using the cache when possible.
+	 * The cached value has one ID per line, followed by the URL of the first page not read (if any) after a "#".
+	 * 
+	 * @param id CBE ID of the organization
+	 * @return future list of site IDs, failing with NotFoundException when ID is unknown
+	 */
+	public CompletableFuture<CbeSiteList> siteIds(String id) {
+		return cache.get("sites/" + id, () -> pubSearch.getSiteListById(id).thenApply(CbeLookup::encode))
+			.thenApply(bytes -> {
+				if (bytes == null) {
+					throw new NotFoundException("Unknown CBE ID " + id);
+				}
+				return decode(bytes);
+			});
+	}
+
+	/**
+	 * Encode list of sites for the cache
+	 * 
+	 * @param list list of sites or null
+	 * @return bytes or null
+	 */
+	private static byte[] encode(CbeSiteList list) {
+		if (list == null) {
+			return null;
+		}
+		String ids = String.join("\n", list.ids());
+		return (list.isComplete() ? ids : ids + "\n#" + list.next()).getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decode list of sites from the cache
+	 * 
+	 * @param bytes bytes
+	 * @return list of sites
+	 */
+	private static CbeSiteList decode(byte[] bytes) {
+		List<String> ids = new ArrayList<>();
+		String next = null;
+		for (String line: new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+			if (line.startsWith("#")) {
+				next = line.substring(1);
+			} else if (!line.isEmpty()) {
+				ids.add(line);
+			}
+		}
+		return new CbeSiteList(ids, next);
+	}
+
+	/**
+	 * Get from local index or cache, or fetch and serialize.
+	 * Concurrent requests for the same ID share the same call to the CBE website 
+	 * (regardless of the requested RDF format).
+	 * 
+	 * @param kind kind of entity
+	 * @param indexKind kind of entity in the local index
+	 * @param id CBE ID
+	 * @param fmt RDF format
+	 * @param fetch fetches and parses the HTML page
+	 * @return future serialized RDF
+	 */
+	private CompletableFuture<byte[]> get(String kind, int indexKind, String id, RDFFormat fmt, 
+											Function<String, CompletableFuture<CbeOrganization>> fetch) {
+		byte[] local = index.get(indexKind, id);
+		if (local != null && fmt == RDFFormat.NTRIPLES) {
+			return CompletableFuture.completedFuture(local);
+		}
+
+		String key = kind + "/" + id + "/" + fmt.getDefaultMIMEType();
+		return cache.get(key, () -> (local != null) 
+									? CompletableFuture.completedFuture(convert(local, fmt))
+									: flights.run(kind + "/" + id, () -> fetch.apply(id))
+										.thenApply(org -> serialize(org, fmt)))
+			.thenApply(rdf -> {
+				if (rdf == null) {
+					throw new NotFoundException("Unknown CBE ID " + id);
+				}
+				return rdf;
+			});
+	}
+
+	/**
+	 * Convert N-Triples from the local index to another RDF format
+	 * 
+	 * @param nt N-Triples
+	 * @param fmt RDF format
+	 * @return bytes
+	 */
+	private static byte[] convert(byte[] nt, RDFFormat fmt) {
+		try {
+			Model m = Rio.parse(new ByteArrayInputStream(nt), RDFFormat.NTRIPLES);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(nt.length * 2);
+			Rio.write(m, out, fmt);
+			return out.toByteArray();
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+
+	/**
+	 * Get statistics about the calls to the CBE website, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public Map<String, Number> stats() {
+		Map<String, Number> stats = new LinkedHashMap<>(flights.stats());
+		stats.putAll(pubSearch.stats());
+		return stats;
+	}
+
+	/**
+	 * Serialize organization to RDF
+	 * 
+	 * @param org organization or null
+	 * @param fmt RDF format
+	 * @return bytes or null
+	 */
+	private byte[] serialize(CbeOrganization org, RDFFormat fmt) {
+		if (org == null) {
+			return null;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+		writer.write(org, out, fmt);
+		return out.toByteArray();
+	}
+}
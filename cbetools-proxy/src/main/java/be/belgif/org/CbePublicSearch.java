@@ -26,35 +26,305 @@
 package be.belgif.org;
 
 import be.belgif.org.dao.CbeOrganization;
+import be.belgif.org.dao.CbeSiteList;
 
-import jakarta.ws.rs.GET;
-import jakarta.ws.rs.Path;
-import jakarta.ws.rs.Produces;
-import jakarta.ws.rs.QueryParam;
-import jakarta.ws.rs.core.MediaType;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
 
-import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import org.jboss.logging.Logger;
 
 /**
- * HTTP client that will perform the search on the CBE website
+ * Asynchronous HTTP client that will perform the search on the CBE website.
+ * 
+ * Uses the non-blocking JDK HTTP client, so no thread is tied up while waiting for the CBE website.
+ * The number of concurrent calls is limited, and every call has a timeout (adapted to the response times).
+ * Transient errors are retried, and calls fail fast when the website appears to be down.
  * 
  * @see <a "https://kbopub.economie.fgov.be/kbopub/zoeknummerform.html">CBE search</a>
  * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
  */
-@RegisterRestClient
-public interface CbePublicSearch {
-	@GET
-	@Path("/toonondernemingps.html")
-	@Produces(MediaType.TEXT_HTML)
-	public CbeOrganization getOrgById(@QueryParam("ondernemingsnummer") String id);
-
-	@GET
-	@Path("/vestiginglijst.html")
-	@Produces(MediaType.TEXT_HTML)
-	public String getSiteListById(@QueryParam("ondernemingsnummer") String id);
-	
-	@GET
-	@Path("/toonvestigingps.html")
-	@Produces(MediaType.TEXT_HTML)
-	public CbeOrganization getSiteById(@QueryParam("vestigingsnummer") String id);
+@Singleton
+public class CbePublicSearch {
+	private final static Logger LOG = Logger.getLogger(CbePublicSearch.class);
+
+	@ConfigProperty(name = "be.belgif.org.search.url")
+	protected String BASEURL;
+
+	@ConfigProperty(name = "be.belgif.org.search.max-concurrent")
+	protected int MAX_CONCURRENT;
+
+	@ConfigProperty(name = "be.belgif.org.search.max-queued")
+	protected int MAX_QUEUED;
+
+	@ConfigProperty(name = "be.belgif.org.search.queue-timeout")
+	protected Duration QUEUE_TIMEOUT;
+
+	@ConfigProperty(name = "be.belgif.org.search.connect-timeout")
+	protected Duration CONNECT_TIMEOUT;
+
+	@ConfigProperty(name = "be.belgif.org.search.timeout")
+	protected Duration TIMEOUT;
+
+	@ConfigProperty(name = "be.belgif.org.search.min-timeout")
+	protected Duration MIN_TIMEOUT;
+
+	@ConfigProperty(name = "be.belgif.org.search.retries")
+	protected int RETRIES;
+
+	@ConfigProperty(name = "be.belgif.org.search.retry-delay")
+	protected Duration RETRY_DELAY;
+
+	@ConfigProperty(name = "be.belgif.org.search.breaker.failures")
+	protected int BREAKER_FAILURES;
+
+	@ConfigProperty(name = "be.belgif.org.search.breaker.open")
+	protected Duration BREAKER_OPEN;
+
+	@ConfigProperty(name = "be.belgif.org.sites.max-pages")
+	protected int MAX_PAGES;
+
+	@Inject
+	CbeHtmlReader reader;
+
+	private HttpClient client;
+	private AsyncLimiter limiter;
+	private CircuitBreaker breaker;
+	private AdaptiveTimeout timeout;
+	private final LongAdder retries = new LongAdder();
+
+	@PostConstruct
+	void init() {
+		client = HttpClient.newBuilder()
+						.connectTimeout(CONNECT_TIMEOUT)
+						.followRedirects(HttpClient.Redirect.NORMAL)
+						.build();
+		limiter = new AsyncLimiter(MAX_CONCURRENT, MAX_QUEUED, QUEUE_TIMEOUT);
+		breaker = new CircuitBreaker(BREAKER_FAILURES, BREAKER_OPEN);
+		timeout = new AdaptiveTimeout(MIN_TIMEOUT, TIMEOUT);
+	}
+
+	/**
+	 * Get organization
+	 * 
+	 * @param id CBE ID
+	 * @return future organization, null when not found
+	 */
+	public CompletableFuture<CbeOrganization> getOrgById(String id) {
+		return get("toonondernemingps.html?ondernemingsnummer=" + id).thenApply(this::parse);
+	}
+
+	/**
+	 * Get the IDs of the sites (establishment units) of an organization.
+	 * Large lists span multiple pages, which are read one after the other up to a maximum number of pages.
+	 * 
+	 * @param id CBE ID of the organization
+	 * @return future list of site IDs, null when not found
+	 */
+	public CompletableFuture<CbeSiteList> getSiteListById(String id) {
+		return getSiteList(URI.create(BASEURL + "vestiginglijst.html?ondernemingsnummer=" + id), 
+							new LinkedHashSet<>(), 1);
+	}
+
+	/**
+	 * Get a page of the list of sites, and then the next pages.
+	 * The list is incomplete when a next page is missing, on another website or over the maximum number of pages.
+	 * 
+	 * @param uri URI of the page
+	 * @param ids site IDs found on previous pages
+	 * @param page page number
+	 * @return future list of site IDs, null when not found
+	 */
+	private CompletableFuture<CbeSiteList> getSiteList(URI uri, Set<String> ids, int page) {
+		return attempt(uri, 0).thenCompose(html -> {
+			if (html == null) {
+				return CompletableFuture.completedFuture((page == 1) ? null
+										: new CbeSiteList(new ArrayList<>(ids), uri.toString()));
+			}
+			CbeSiteList list = parseSiteList(html, uri);
+			ids.addAll(list.ids());
+			if (list.isComplete()) {
+				return CompletableFuture.completedFuture(new CbeSiteList(new ArrayList<>(ids), null));
+			}
+			if (page >= MAX_PAGES || !list.next().startsWith(BASEURL)) {
+				LOG.warnf("Not reading site list page %s", list.next());
+				return CompletableFuture.completedFuture(new CbeSiteList(new ArrayList<>(ids), list.next()));
+			}
+			return getSiteList(URI.create(list.next()), ids, page + 1);
+		});
+	}
+
+	/**
+	 * Get site (establishment unit)
+	 * 
+	 * @param id CBE ID
+	 * @return future site, null when not found
+	 */
+	public CompletableFuture<CbeOrganization> getSiteById(String id) {
+		return get("toonvestigingps.html?vestigingsnummer=" + id).thenApply(this::parse);
+	}
+
+	/**
+	 * Get statistics about the (pending) calls, retries, circuit breaker and timeout, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public Map<String, Number> stats() {
+		Map<String, Number> stats = new LinkedHashMap<>(limiter.stats());
+		stats.put("retries", retries.sum());
+		for (Map.Entry<String, Number> e: breaker.stats().entrySet()) {
+			stats.put("breaker_" + e.getKey(), e.getValue());
+		}
+		stats.putAll(timeout.stats());
+		return stats;
+	}
+
+	/**
+	 * Parse HTML page
+	 * 
+	 * @param html HTML page or null
+	 * @return organization or null when not found
+	 */
+	private CbeOrganization parse(byte[] html) {
+		if (html == null) {
+			return null;
+		}
+		try {
+			CbeOrganization org = reader.parseOrganization(new ByteArrayInputStream(html));
+			return (org.getId() != null) ? org : null;
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+
+	/**
+	 * Parse HTML page listing the sites
+	 * 
+	 * @param html HTML page
+	 * @param uri URI of the page
+	 * @return list of site IDs and link to the next page
+	 */
+	private CbeSiteList parseSiteList(byte[] html, URI uri) {
+		try {
+			return reader.parseSiteList(new ByteArrayInputStream(html), uri.toString());
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+
+	/**
+	 * Get a page from the CBE website, retrying transient errors
+	 * 
+	 * @param path relative path and query
+	 * @return future response body, null when not found
+	 */
+	private CompletableFuture<byte[]> get(String path) {
+		return attempt(URI.create(BASEURL + path), 0);
+	}
+
+	/**
+	 * Call the CBE website once, failing fast when the circuit breaker is open 
+	 * and waiting for a free slot when too many calls are running
+	 * 
+	 * @param uri URI of the page
+	 * @param attempt number of previous attempts
+	 * @return future response body, null when not found
+	 */
+	private CompletableFuture<byte[]> attempt(URI uri, int attempt) {
+		if (!breaker.allow()) {
+			return CompletableFuture.failedFuture(new ServiceUnavailableException("CBE website unavailable", 
+														Math.max(1, breaker.retryAfter().toSeconds())));
+		}
+		HttpRequest req = HttpRequest.newBuilder(uri)
+									.timeout(timeout.timeout())
+									.header("Accept", "text/html")
+									.GET()
+									.build();
+		// response time without waiting in the queue
+		long[] start = new long[1];
+
+		return limiter.submit(() -> {
+				start[0] = System.nanoTime();
+				return client.sendAsync(req, HttpResponse.BodyHandlers.ofByteArray());
+			}).handle((resp, t) -> {
+				Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+				if (cause instanceof RejectedExecutionException) {
+					breaker.ignore();
+					return CompletableFuture.<byte[]>failedFuture(
+						new ServiceUnavailableException("Too many pending requests to CBE website"));
+				}
+				if (cause instanceof HttpTimeoutException) {
+					// not retried, this would only add more load to a slow website
+					breaker.failure();
+					timeout.timedOut();
+					return CompletableFuture.<byte[]>failedFuture(new WebApplicationException(
+						"Timeout calling CBE website", cause, Response.Status.GATEWAY_TIMEOUT));
+				}
+				if (cause != null) {
+					breaker.failure();
+					return retry(uri, attempt, new WebApplicationException(
+						"Error calling CBE website", cause, Response.Status.BAD_GATEWAY));
+				}
+
+				int status = resp.statusCode();
+				if (status == 200 || status == 404) {
+					breaker.success();
+					timeout.success(System.nanoTime() - start[0]);
+					return CompletableFuture.completedFuture(status == 200 ? resp.body() : null);
+				}
+				breaker.failure();
+				WebApplicationException wae = new WebApplicationException("CBE website returned " + status, 
+																			Response.Status.BAD_GATEWAY);
+				return (status >= 500 || status == 429) ? retry(uri, attempt, wae) 
+														: CompletableFuture.<byte[]>failedFuture(wae);
+			}).thenCompose(Function.identity());
+	}
+
+	/**
+	 * Retry after a random delay (exponential backoff with full jitter), 
+	 * so retries of many clients don't all arrive at the same time
+	 * 
+	 * @param uri URI of the page
+	 * @param attempt number of previous attempts
+	 * @param error error to return when there are no retries left
+	 * @return future response body, null when not found
+	 */
+	private CompletableFuture<byte[]> retry(URI uri, int attempt, WebApplicationException error) {
+		if (attempt >= RETRIES) {
+			return CompletableFuture.failedFuture(error);
+		}
+		retries.increment();
+		long delay = ThreadLocalRandom.current().nextLong((RETRY_DELAY.toNanos() << attempt) + 1);
+		Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS);
+		return CompletableFuture.supplyAsync(() -> attempt(uri, attempt + 1), delayed)
+								.thenCompose(Function.identity());
+	}
 }
@@ -34,19 +34,22 @@ import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.ext.MessageBodyWriter;
 import jakarta.ws.rs.ext.Provider;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
-import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.ValueFactory;
-import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.FOAF;
 import org.eclipse.rdf4j.model.vocabulary.ORG;
@@ -54,7 +57,10 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.ROV;
 import org.eclipse.rdf4j.model.vocabulary.SKOS;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.WriterConfig;
 
 /**
  * Converts Java object into ORG/ROV triples
@@ -77,7 +83,10 @@ public class CbeRdfWriter implements MessageBodyWriter<CbeOrganization> {
 	@ConfigProperty(name = "be.belgif.org.prefix.nace_old")
 	protected String naceOldPrefix;
 
-	private final ValueFactory F = SimpleValueFactory.getInstance();
+	private final static ValueFactory F = SimpleValueFactory.getInstance();
+
+	// default settings, shared by all writers instead of creating a new config for every response
+	private final static WriterConfig CONFIG = new WriterConfig();
 
 	@Override
 	public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -98,57 +107,92 @@ public class CbeRdfWriter implements MessageBodyWriter<CbeOrganization> {
 			MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) 
 				throws IOException, WebApplicationException {
 		RDFFormat fmt = RDFFormat.NTRIPLES.hasMIMEType(mediaType.toString()) ? RDFFormat.NTRIPLES : RDFFormat.JSONLD;
-		Rio.write(mapOrgToModel(t), entityStream, fmt);
+		write(t, entityStream, fmt);
 	}
 
 	/**
-	 * Turn organization object into RDF model
+	 * Write organization as RDF to an output stream
 	 * 
 	 * @param org organization object
-	 * @return RDF Model 
+	 * @param out output stream
+	 * @param fmt RDF format
+	 */
+	public void write(CbeOrganization org, OutputStream out, RDFFormat fmt) {
+		RDFWriter w = createWriter(out, fmt);
+		w.startRDF();
+		write(org, w);
+		w.endRDF();
+	}
+
+	/**
+	 * Create RDF writer, using the shared writer configuration.
+	 * Can be used to write multiple entities to the same stream.
+	 * 
+	 * Output is buffered, since the N-Triples writer writes values character by character, 
+	 * the buffer is flushed by endRDF().
+	 * 
+	 * @param out output stream
+	 * @param fmt RDF format
+	 * @return RDF writer
 	 */
-	private Model mapOrgToModel(CbeOrganization org) {
-		Model m = new LinkedHashModel();
+	public static RDFWriter createWriter(OutputStream out, RDFFormat fmt) {
+		RDFWriter w = Rio.createWriter(fmt, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+		w.setWriterConfig(CONFIG);
+		return w;
+	}
 
+	/**
+	 * Pass the statements about an organization to an RDF handler, without building an RDF model first.
+	 * Activities are only written once, even when they occur in multiple (VAT and NSSO) lists.
+	 * 
+	 * @param org organization object
+	 * @param h RDF handler
+	 */
+	public void write(CbeOrganization org, RDFHandler h) {
 		String orgId = org.getId().replace(".", "");
 		String parentId = org.getParentId();
 	
 		IRI id;
 		if (parentId == null) {
 			id = F.createIRI(orgPrefix + orgId);
-			m.add(id, RDF.TYPE, ORG.ORGANIZATION);
-			m.add(id, RDF.TYPE, ROV.REGISTERED_ORGANIZATION);
+			h.handleStatement(F.createStatement(id, RDF.TYPE, ORG.ORGANIZATION));
+			h.handleStatement(F.createStatement(id, RDF.TYPE, ROV.REGISTERED_ORGANIZATION));
 		} else {
 			id = F.createIRI(sitePrefix + orgId);
-			m.add(id, RDF.TYPE, ORG.SITE);
-			m.add(id, ORG.SITE_OF, F.createIRI(orgPrefix + parentId.replace(".", "")));
+			h.handleStatement(F.createStatement(id, RDF.TYPE, ORG.SITE));
+			h.handleStatement(F.createStatement(id, ORG.SITE_OF, F.createIRI(orgPrefix + parentId.replace(".", ""))));
 		}
 
 		for (Entry<String, String> e: org.getNames().entrySet()) {
 			Literal name = e.getKey().isEmpty() ? F.createLiteral(e.getValue()) 
 												: F.createLiteral(e.getValue(), e.getKey());
-			m.add(id, ROV.LEGAL_NAME, name);
+			h.handleStatement(F.createStatement(id, ROV.LEGAL_NAME, name));
 		}
 		for (Entry<String, String> e: org.getAbbrevs().entrySet()) {
 			Literal name = e.getKey().isEmpty() ? F.createLiteral(e.getValue()) 
 												: F.createLiteral(e.getValue(), e.getKey());
-			m.add(id, SKOS.ALT_LABEL, name);
+			h.handleStatement(F.createStatement(id, SKOS.ALT_LABEL, name));
 		}
+
+		Set<String> activities = new LinkedHashSet<>();
 		for (String act: org.getVatActivities()) {
-			m.add(id, ROV.ORG_ACTIVITY, F.createIRI(naceOldPrefix + act.replace(".", "")));
+			activities.add(naceOldPrefix + act.replace(".", ""));
 		}
 		for (String act: org.getNssOldActivities()) {
-			m.add(id, ROV.ORG_ACTIVITY, F.createIRI(naceOldPrefix + act.replace(".", "")));
+			activities.add(naceOldPrefix + act.replace(".", ""));
 		}
 		for (String act: org.getNssActivities()) {
-			m.add(id, ROV.ORG_ACTIVITY, F.createIRI(nacePrefix + act.replace(".", "")));
+			activities.add(nacePrefix + act.replace(".", ""));
+		}
+		for (String act: activities) {
+			h.handleStatement(F.createStatement(id, ROV.ORG_ACTIVITY, F.createIRI(act)));
 		}
+
 		if (org.getEmail() != null) {
-			m.add(id, FOAF.MBOX, F.createIRI(org.getEmail()));
+			h.handleStatement(F.createStatement(id, FOAF.MBOX, F.createIRI(org.getEmail())));
 		}
 		if (org.getWebsite() != null) {
-			m.add(id, FOAF.HOMEPAGE, F.createIRI(org.getWebsite()));
+			h.handleStatement(F.createStatement(id, FOAF.HOMEPAGE, F.createIRI(org.getWebsite())));
 		}
-		return m;
 	}
 }
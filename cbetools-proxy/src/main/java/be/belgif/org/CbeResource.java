@@ -25,20 +25,37 @@
  */
 package be.belgif.org;
 
-import be.belgif.org.dao.CbeOrganization;
+import be.belgif.org.dao.CbeSiteList;
+
 import jakarta.inject.Inject;
 import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
 
 /**
  * Proxy endpoint, either redirects to HTML page or generates RDF (based on HTTP Accept Header)
@@ -53,12 +70,26 @@ public class CbeResource {
 	@ConfigProperty(name = "be.belgif.org.redirect.site")
 	protected String REDIRECT_SITE;
 			
+	@ConfigProperty(name = "be.belgif.org.sites.parallelism")
+	protected int SITES_PARALLELISM;
+
+	@ConfigProperty(name = "be.belgif.org.batch.parallelism")
+	protected int BATCH_PARALLELISM;
+
+	@ConfigProperty(name = "be.belgif.org.batch.max-size")
+	protected int BATCH_MAX_SIZE;
+
 	@Inject
-    @RestClient
-	CbePublicSearch pubSearch;
+	CbeLookup lookup;
 
 	// 9 to 12 numbers, starting with 0, 1 or 2
 	private final static Pattern ALL_NUMBER = Pattern.compile("[0-2]\\d{8,11}");
+
+	// IDs in a batch request are separated by whitespace, commas or semicolons
+	private final static Pattern SEPARATOR = Pattern.compile("[\\s,;]+");
+
+	private final static List<Variant> RDF_VARIANTS = 
+		Variant.mediaTypes(CbeLookup.NTRIPLES, CbeLookup.JSONLD).build();
 	
 	/**
 	 * Check if an input parameter could be a valid CBE id
@@ -74,6 +105,78 @@ public class CbeResource {
 		}
 	}
 
+	/**
+	 * Split the body of a batch request into a list of unique, valid CBE IDs
+	 * 
+	 * @param body request body
+	 * @return list of IDs
+	 */
+	private List<String> verifyIds(String body) {
+		Set<String> ids = new LinkedHashSet<>();
+		for (String id: SEPARATOR.split(body == null ? "" : body.strip())) {
+			if (!id.isEmpty()) {
+				verifyId(id);
+				ids.add(id);
+			}
+		}
+		if (ids.isEmpty()) {
+			throw new BadRequestException("No CBE IDs");
+		}
+		if (ids.size() > BATCH_MAX_SIZE) {
+			throw new BadRequestException("Too many CBE IDs, maximum is " + BATCH_MAX_SIZE);
+		}
+		return new ArrayList<>(ids);
+	}
+
+	/**
+	 * Stream a batch of entities as RDF, in the format requested by the client.
+	 * Entities are fetched concurrently, failures are reported inline.
+	 * 
+	 * @param variant selected variant
+	 * @param head N-Triples to write first, or null
+	 * @param notes notes about the batch, can be empty
+	 * @param ids CBE IDs
+	 * @param rdf returns future N-Triples for a CBE ID
+	 * @param parallelism maximum number of entities being fetched at the same time
+	 * @return response
+	 */
+	private static Response batch(Variant variant, byte[] head, List<String> notes, List<String> ids, 
+									Function<String, CompletableFuture<byte[]>> rdf, int parallelism) {
+		RDFFormat fmt = CbeLookup.format(variant.getMediaType());
+		return Response.ok(new CbeBatchOutput(head, notes, ids, rdf, fmt, parallelism), variant).build();
+	}
+
+	/**
+	 * Get (cached) RDF in the format requested by the client.
+	 * The request is suspended while waiting for the CBE website, instead of blocking a worker thread.
+	 * 
+	 * @param request HTTP request
+	 * @param rdf returns future serialized RDF for a given format
+	 * @return future response
+	 */
+	private CompletionStage<Response> rdf(Request request, Function<RDFFormat, CompletableFuture<byte[]>> rdf) {
+		Variant variant = request.selectVariant(RDF_VARIANTS);
+		if (variant == null) {
+			return CompletableFuture.completedFuture(Response.notAcceptable(RDF_VARIANTS).build());
+		}
+		return rdf.apply(CbeLookup.format(variant.getMediaType()))
+			.handle((bytes, t) -> (t == null) ? Response.ok(bytes, variant).build() : error(t));
+	}
+
+	/**
+	 * Turn the exception of an asynchronous call into an error response
+	 * 
+	 * @param t exception
+	 * @return error response
+	 */
+	private static Response error(Throwable t) {
+		Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+		if (cause instanceof WebApplicationException) {
+			return ((WebApplicationException) cause).getResponse();
+		}
+		throw (t instanceof CompletionException) ? (CompletionException) t : new CompletionException(t);
+	}
+
 	// Organization
 	@GET
 	@Path("/cbe/org/{id}")
@@ -97,9 +200,59 @@ public class CbeResource {
 	@GET
 	@Path("/CbeRegisteredEntity/{id}")
 	@Produces({"application/n-triples", "application/ld+json"})
-	public CbeOrganization org(@PathParam("id") String id) {
+	public CompletionStage<Response> org(@PathParam("id") String id, @Context Request request) {
 		verifyId(id);
-		return pubSearch.getOrgById(id);
+		return rdf(request, fmt -> lookup.org(id, fmt));
+	}
+	/**
+	 * Get organization and all its sites as one RDF graph.
+	 * The response is created when the organization and the list of sites have arrived, without blocking 
+	 * a worker thread, and then streams the sites to the client while they are being fetched concurrently.
+	 * An incomplete list of sites is reported as a note.
+	 * 
+	 * @param id CBE ID of the organization
+	 * @param request HTTP request
+	 * @return future response
+	 */
+	@GET
+	@Path("/CbeRegisteredEntity/{id}/sites")
+	@Produces({"application/n-triples", "application/ld+json"})
+	public CompletionStage<Response> orgWithSites(@PathParam("id") String id, @Context Request request) {
+		verifyId(id);
+		Variant variant = request.selectVariant(RDF_VARIANTS);
+		if (variant == null) {
+			return CompletableFuture.completedFuture(Response.notAcceptable(RDF_VARIANTS).build());
+		}
+		CompletableFuture<byte[]> org = lookup.org(id, RDFFormat.NTRIPLES);
+		CompletableFuture<CbeSiteList> sites = lookup.siteIds(id);
+		return org.thenCombine(sites, (head, list) -> {
+				List<String> notes = list.isComplete() ? List.of() 
+										: List.of("Incomplete list of sites, not read: " + list.next());
+				return batch(variant, head, notes, list.ids(), 
+							site -> lookup.site(site, RDFFormat.NTRIPLES), SITES_PARALLELISM);
+			})
+			.handle((response, t) -> (t == null) ? response : error(t));
+	}
+
+	/**
+	 * Get a batch of organizations as one RDF graph.
+	 * The body contains the CBE IDs, separated by whitespace, commas or semicolons.
+	 * 
+	 * @param body CBE IDs
+	 * @param request HTTP request
+	 * @return response
+	 */
+	@POST
+	@Path("/CbeRegisteredEntity")
+	@Consumes(MediaType.TEXT_PLAIN)
+	@Produces({"application/n-triples", "application/ld+json"})
+	public Response orgs(String body, @Context Request request) {
+		List<String> ids = verifyIds(body);
+		Variant variant = request.selectVariant(RDF_VARIANTS);
+		if (variant == null) {
+			return Response.notAcceptable(RDF_VARIANTS).build();
+		}
+		return batch(variant, null, List.of(), ids, id -> lookup.org(id, RDFFormat.NTRIPLES), BATCH_PARALLELISM);
 	}
 	@GET
 	@Path("/CbeRegisteredEntity/{id}")
@@ -132,9 +285,29 @@ public class CbeResource {
 	@GET
 	@Path("/CbeEstablishmentUnit/{id}")
 	@Produces({"application/n-triples", "application/ld+json"})
-	public CbeOrganization site(@PathParam("id") String id) {
+	public CompletionStage<Response> site(@PathParam("id") String id, @Context Request request) {
 		verifyId(id);
-		return pubSearch.getSiteById(id);
+		return rdf(request, fmt -> lookup.site(id, fmt));
+	}
+	/**
+	 * Get a batch of sites as one RDF graph.
+	 * The body contains the CBE IDs, separated by whitespace, commas or semicolons.
+	 * 
+	 * @param body CBE IDs
+	 * @param request HTTP request
+	 * @return response
+	 */
+	@POST
+	@Path("/CbeEstablishmentUnit")
+	@Consumes(MediaType.TEXT_PLAIN)
+	@Produces({"application/n-triples", "application/ld+json"})
+	public Response sites(String body, @Context Request request) {
+		List<String> ids = verifyIds(body);
+		Variant variant = request.selectVariant(RDF_VARIANTS);
+		if (variant == null) {
+			return Response.notAcceptable(RDF_VARIANTS).build();
+		}
+		return batch(variant, null, List.of(), ids, id -> lookup.site(id, RDFFormat.NTRIPLES), BATCH_PARALLELISM);
 	}
 	@GET
 	@Path("/CbeEstablishmentUnit/{id}")
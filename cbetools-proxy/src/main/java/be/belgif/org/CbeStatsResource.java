@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.Map;
+
+/**
+ * Statistics endpoint, in Prometheus text format
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@Path("/stats/")
+public class CbeStatsResource {
+	@Inject
+	CbeCache cache;
+
+	@Inject
+	CbeLookup lookup;
+
+	@Inject
+	CbeLocalIndex index;
+
+	/**
+	 * Append statistics, prefixing each name
+	 * 
+	 * @param buf string builder
+	 * @param prefix prefix
+	 * @param stats statistics
+	 */
+	private static void append(StringBuilder buf, String prefix, Map<String, Number> stats) {
+		for (Map.Entry<String, Number> e: stats.entrySet()) {
+			buf.append(prefix).append(e.getKey()).append(' ').append(e.getValue()).append('\n');
+		}
+	}
+
+	@GET
+	@Path("/upstream")
+	@Produces(MediaType.TEXT_PLAIN)
+	public String upstream() {
+		StringBuilder buf = new StringBuilder(256);
+		append(buf, "cbe_upstream_", lookup.stats());
+		return buf.toString();
+	}
+
+	@GET
+	@Path("/index")
+	@Produces(MediaType.TEXT_PLAIN)
+	public String index() {
+		StringBuilder buf = new StringBuilder(256);
+		append(buf, "cbe_index_", index.stats());
+		return buf.toString();
+	}
+
+	@GET
+	@Path("/cache")
+	@Produces(MediaType.TEXT_PLAIN)
+	public String cache() {
+		StringBuilder buf = new StringBuilder(256);
+		append(buf, "cbe_cache_", cache.stats());
+		return buf.toString();
+	}
+}
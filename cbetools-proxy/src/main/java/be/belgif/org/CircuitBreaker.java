@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a remote service after a number of consecutive failures, so calls fail fast
+ * instead of waiting for timeouts while the service is down.
+ * 
+ * After a while, a single trial call is let through (half-open): 
+ * when it succeeds the breaker is closed again, otherwise it stays open for another period.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CircuitBreaker {
+	public enum State { CLOSED, OPEN, HALF_OPEN }
+
+	private final int threshold;
+	private final long openNanos;
+	private final LongSupplier clock;
+
+	private State state = State.CLOSED;
+	private int consecutive = 0;
+	private long openedAt = 0;
+	private boolean trial = false;
+
+	private long failures = 0;
+	private long opened = 0;
+	private long rejected = 0;
+
+	/**
+	 * Check if a call is allowed. 
+	 * Each allowed call must be followed by a call to success, failure or ignore.
+	 * 
+	 * @return false if the breaker is open
+	 */
+	public synchronized boolean allow() {
+		if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+			state = State.HALF_OPEN;
+		}
+		if (state == State.CLOSED) {
+			return true;
+		}
+		if (state == State.HALF_OPEN && !trial) {
+			trial = true;
+			return true;
+		}
+		rejected++;
+		return false;
+	}
+
+	/**
+	 * Register a successful call, closing the breaker
+	 */
+	public synchronized void success() {
+		consecutive = 0;
+		trial = false;
+		state = State.CLOSED;
+	}
+
+	/**
+	 * Register a failed call, opening the breaker when the threshold is reached or when the trial call failed
+	 */
+	public synchronized void failure() {
+		failures++;
+		consecutive++;
+		if (state == State.HALF_OPEN || (state == State.CLOSED && consecutive >= threshold)) {
+			state = State.OPEN;
+			openedAt = clock.getAsLong();
+			opened++;
+			trial = false;
+		}
+	}
+
+	/**
+	 * Register a call that didn't reach the remote service (e.g. rejected locally), 
+	 * allowing another trial call when half-open
+	 */
+	public synchronized void ignore() {
+		trial = false;
+	}
+
+	/**
+	 * Get current state
+	 * 
+	 * @return state
+	 */
+	public synchronized State state() {
+		return state;
+	}
+
+	/**
+	 * Get the time until the next trial call is allowed
+	 * 
+	 * @return duration, zero when closed or half-open
+	 */
+	public synchronized Duration retryAfter() {
+		if (state != State.OPEN) {
+			return Duration.ZERO;
+		}
+		return Duration.ofNanos(Math.max(0, openNanos - (clock.getAsLong() - openedAt)));
+	}
+
+	/**
+	 * Get statistics, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public synchronized Map<String, Number> stats() {
+		Map<String, Number> stats = new LinkedHashMap<>();
+		stats.put("state", state.ordinal());
+		stats.put("failures", failures);
+		stats.put("opened", opened);
+		stats.put("rejected", rejected);
+		return stats;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param threshold number of consecutive failures opening the breaker
+	 * @param open time the breaker stays open before allowing a trial call
+	 * @param clock time source in nanoseconds
+	 */
+	CircuitBreaker(int threshold, Duration open, LongSupplier clock) {
+		this.threshold = threshold;
+		this.openNanos = open.toNanos();
+		this.clock = clock;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param threshold number of consecutive failures opening the breaker
+	 * @param open time the breaker stays open before allowing a trial call
+	 */
+	public CircuitBreaker(int threshold, Duration open) {
+		this(threshold, open, System::nanoTime);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: only the first caller performs the call,
+ * callers arriving while it is still in flight share its result (or exception).
+ * Nothing is kept once the call has completed, that's up to the cache.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ * @param <K> type of key
+ * @param <V> type of result
+ */
+public class SingleFlight<K, V> {
+	private final Map<K, CompletableFuture<V>> inflight = new ConcurrentHashMap<>();
+
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder shared = new LongAdder();
+
+	/**
+	 * Perform a call, or join the call already in flight for the same key.
+	 * 
+	 * @param key key
+	 * @param call performs the (possibly asynchronous) call
+	 * @return future result
+	 */
+	public CompletableFuture<V> run(K key, Supplier<? extends CompletionStage<V>> call) {
+		CompletableFuture<V> f = new CompletableFuture<>();
+		CompletableFuture<V> prev = inflight.putIfAbsent(key, f);
+		if (prev != null) {
+			shared.increment();
+			return prev.copy();
+		}
+		calls.increment();
+		f.whenComplete((v, t) -> inflight.remove(key, f));
+		try {
+			call.get().whenComplete((v, t) -> {
+				if (t != null) {
+					f.completeExceptionally(t);
+				} else {
+					f.complete(v);
+				}
+			});
+		} catch (RuntimeException e) {
+			f.completeExceptionally(e);
+		}
+		return f.copy();
+	}
+
+	/**
+	 * Get statistics, as name / value pairs
+	 * 
+	 * @return map of statistics
+	 */
+	public Map<String, Number> stats() {
+		Map<String, Number> stats = new LinkedHashMap<>();
+		stats.put("calls", calls.sum());
+		stats.put("shared", shared.sum());
+		stats.put("in_flight", inflight.size());
+		return stats;
+	}
+}
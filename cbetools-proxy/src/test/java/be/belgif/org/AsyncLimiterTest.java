@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the asynchronous limiter
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class AsyncLimiterTest {
+	@Test
+	public void testQueueTimeout() throws Exception {
+		AsyncLimiter limiter = new AsyncLimiter(1, 10, Duration.ofMillis(100));
+		CompletableFuture<String> slow = new CompletableFuture<>();
+
+		CompletableFuture<String> first = limiter.submit(() -> slow);
+		CompletableFuture<String> queued = limiter.submit(() -> CompletableFuture.completedFuture("queued"));
+
+		ExecutionException ee = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(RejectedExecutionException.class, ee.getCause());
+		assertFalse(first.isDone());
+		assertEquals(1L, limiter.stats().get("expired"));
+		assertEquals(0, limiter.stats().get("queued"));
+
+		// the permit is still given back to the next call
+		slow.complete("slow");
+		assertEquals("slow", first.get());
+		assertEquals("next", limiter.submit(() -> CompletableFuture.completedFuture("next")).get());
+	}
+
+	@Test
+	public void testSynchronousFailures() throws Exception {
+		AsyncLimiter limiter = new AsyncLimiter(1, Integer.MAX_VALUE);
+		CompletableFuture<String> slow = new CompletableFuture<>();
+		limiter.submit(() -> slow);
+
+		// queued calls failing immediately must not start the next call recursively
+		List<CompletableFuture<String>> failing = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			failing.add(limiter.submit(() -> {
+				throw new IllegalStateException("fail");
+			}));
+		}
+		slow.complete("done");
+
+		for (CompletableFuture<String> f: failing) {
+			assertTrue(f.isCompletedExceptionally());
+		}
+		assertEquals(0, limiter.stats().get("active"));
+		assertEquals(100_001L, limiter.stats().get("started"));
+	}
+}
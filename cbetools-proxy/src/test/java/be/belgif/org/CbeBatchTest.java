@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import io.quarkus.test.common.ResourceArg;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test batch requests and organization with all its sites, against a slow local stub of the CBE website
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@QuarkusTest
+@TestProfile(CbeBatchTest.Profile.class)
+@WithTestResource(value = KbopubStub.class, initArgs = { @ResourceArg(name = "delay", value = "100"),
+														@ResourceArg(name = "sites", value = "20") })
+public class CbeBatchTest {
+	private final static int PARALLELISM = 4;
+	private final static int MAX_PAGES = 3;
+
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of("be.belgif.org.sites.parallelism", String.valueOf(PARALLELISM),
+						"be.belgif.org.batch.parallelism", String.valueOf(PARALLELISM),
+						"be.belgif.org.sites.max-pages", String.valueOf(MAX_PAGES),
+						"be.belgif.org.batch.max-size", "50",
+						"be.belgif.org.cache.size", "0");
+		}
+	}
+
+	@Test
+	public void testOrgWithSites() {
+		KbopubStub.CALLS.set(0);
+		KbopubStub.PEAK.set(0);
+
+		String nt = given().accept("application/n-triples")
+			.when().get("/id/CbeRegisteredEntity/0671516647/sites")
+			.then().statusCode(200)
+				.body(containsString("<https://org.belgif.be/id/CbeRegisteredEntity/0671516647>"))
+				.body(containsString("# Unknown CBE ID " + KbopubStub.UNKNOWN))
+			.extract().asString();
+
+		// organization, 3 pages listing the sites, 20 known and 1 unknown site
+		assertEquals(25, KbopubStub.CALLS.get());
+		assertTrue(KbopubStub.PEAK.get() <= PARALLELISM, "Peak " + KbopubStub.PEAK.get());
+		assertEquals(1, nt.lines().filter(l -> l.startsWith("#")).count());
+	}
+
+	@Test
+	public void testOrgWithSitesJsonld() {
+		given().accept("application/ld+json")
+			.when().get("/id/CbeRegisteredEntity/0671516647/sites")
+			.then().statusCode(200)
+				.contentType("application/ld+json")
+				.body(containsString("https://org.belgif.be/id/CbeRegisteredEntity/0671516647"))
+				.body(containsString("Unknown CBE ID " + KbopubStub.UNKNOWN));
+	}
+
+	@Test
+	public void testIncompleteSiteList() {
+		KbopubStub.CALLS.set(0);
+
+		String nt = given().accept("application/n-triples")
+			.when().get("/id/CbeRegisteredEntity/" + KbopubStub.ENDLESS + "/sites")
+			.then().statusCode(200)
+				.body(containsString("# Incomplete list of sites, not read: "))
+				.body(containsString("page=" + (MAX_PAGES + 1)))
+			.extract().asString();
+
+		// organization, maximum number of pages and the sites listed on these pages
+		assertEquals(1 + MAX_PAGES + MAX_PAGES * KbopubStub.PAGE_SIZE, KbopubStub.CALLS.get());
+		assertEquals(1, nt.lines().filter(l -> l.startsWith("#")).count());
+
+		given().accept("application/ld+json")
+			.when().get("/id/CbeRegisteredEntity/" + KbopubStub.ENDLESS + "/sites")
+			.then().statusCode(200)
+				.body(containsString("Incomplete list of sites, not read: "));
+	}
+
+	@Test
+	public void testUnknownOrg() {
+		given().accept("application/n-triples")
+			.when().get("/id/CbeRegisteredEntity/" + KbopubStub.UNKNOWN + "/sites")
+			.then().statusCode(404);
+	}
+
+	@Test
+	public void testBatch() {
+		KbopubStub.CALLS.set(0);
+		KbopubStub.PEAK.set(0);
+
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			body.append(String.format("02%08d", i)).append(i % 2 == 0 ? "\n" : ", ");
+		}
+		body.append(KbopubStub.UNKNOWN);
+
+		String nt = given().accept("application/n-triples").contentType("text/plain").body(body.toString())
+			.when().post("/id/CbeRegisteredEntity")
+			.then().statusCode(200)
+				.body(containsString("<https://org.belgif.be/id/CbeRegisteredEntity/0671516647>"))
+				.body(containsString("# Unknown CBE ID " + KbopubStub.UNKNOWN))
+			.extract().asString();
+
+		assertEquals(21, KbopubStub.CALLS.get());
+		assertTrue(KbopubStub.PEAK.get() <= PARALLELISM, "Peak " + KbopubStub.PEAK.get());
+		assertEquals(1, nt.lines().filter(l -> l.startsWith("#")).count());
+	}
+
+	@Test
+	public void testBatchInvalid() {
+		given().accept("application/n-triples").contentType("text/plain").body("0671516647 ABC")
+			.when().post("/id/CbeRegisteredEntity")
+			.then().statusCode(400);
+		given().accept("application/n-triples").contentType("text/plain").body(" ")
+			.when().post("/id/CbeEstablishmentUnit")
+			.then().statusCode(400);
+		// duplicates are removed before checking the maximum size
+		given().accept("application/n-triples").contentType("text/plain").body("0671516647\n".repeat(51))
+			.when().post("/id/CbeRegisteredEntity")
+			.then().statusCode(200);
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 51; i++) {
+			body.append(String.format("02%08d ", i));
+		}
+		given().accept("application/n-triples").contentType("text/plain").body(body.toString())
+			.when().post("/id/CbeRegisteredEntity")
+			.then().statusCode(400);
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the response cache
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CbeCacheTest {
+	private final static byte[] VALUE = "<a> <b> <c> .".getBytes(StandardCharsets.UTF_8);
+
+	/**
+	 * Loader counting the number of loads
+	 * 
+	 * @param loads counter
+	 * @param value value to return
+	 * @return loader
+	 */
+	private static Supplier<CompletableFuture<byte[]>> load(AtomicInteger loads, byte[] value) {
+		return () -> {
+			loads.incrementAndGet();
+			return CompletableFuture.completedFuture(value);
+		};
+	}
+
+	@Test
+	public void testHitAndExpire() {
+		AtomicLong now = new AtomicLong();
+		AtomicInteger loads = new AtomicInteger();
+		CbeCache cache = new CbeCache(100, Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ZERO, now::get);
+
+		for (int i = 0; i < 3; i++) {
+			assertArrayEquals(VALUE, cache.get("org/1", load(loads, VALUE)).join());
+		}
+		assertEquals(1, loads.get());
+
+		now.addAndGet(Duration.ofSeconds(11).toNanos());
+		cache.get("org/1", load(loads, VALUE)).join();
+		assertEquals(2, loads.get());
+		assertEquals(1L, cache.stats().get("expired"));
+		assertEquals(2L, cache.stats().get("hits"));
+	}
+
+	@Test
+	public void testNegative() {
+		AtomicLong now = new AtomicLong();
+		AtomicInteger loads = new AtomicInteger();
+		CbeCache cache = new CbeCache(100, Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ZERO, now::get);
+
+		assertNull(cache.get("org/2", load(loads, null)).join());
+		assertNull(cache.get("org/2", load(loads, null)).join());
+		assertEquals(1, loads.get());
+		assertEquals(1L, cache.stats().get("negative_hits"));
+
+		// unknown IDs expire sooner
+		now.addAndGet(Duration.ofSeconds(2).toNanos());
+		assertArrayEquals(VALUE, cache.get("org/2", load(loads, VALUE)).join());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testStale() {
+		AtomicLong now = new AtomicLong();
+		AtomicInteger loads = new AtomicInteger();
+		CbeCache cache = new CbeCache(100, Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofMinutes(1), 
+										now::get);
+		Supplier<CompletableFuture<byte[]>> failing = () -> {
+			loads.incrementAndGet();
+			return CompletableFuture.failedFuture(new IllegalStateException("down"));
+		};
+
+		cache.get("org/3", load(loads, VALUE)).join();
+		now.addAndGet(Duration.ofSeconds(11).toNanos());
+		assertArrayEquals(VALUE, cache.get("org/3", failing).join());
+		assertEquals(1L, cache.stats().get("stale_hits"));
+
+		// too old to be used as fallback
+		now.addAndGet(Duration.ofMinutes(2).toNanos());
+		assertThrows(CompletionException.class, () -> cache.get("org/3", failing).join());
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void testEvict() {
+		CbeCache cache = new CbeCache(16, Duration.ofHours(1), Duration.ofHours(1), Duration.ZERO, System::nanoTime);
+		for (int i = 0; i < 1000; i++) {
+			cache.get("org/" + i, () -> CompletableFuture.completedFuture(VALUE));
+		}
+		assertTrue(cache.size() <= 16);
+		assertEquals(1000L - cache.size(), cache.stats().get("evicted"));
+	}
+
+	@Test
+	public void testDisabled() {
+		AtomicInteger loads = new AtomicInteger();
+		CbeCache cache = new CbeCache(0, Duration.ofHours(1), Duration.ofHours(1), Duration.ZERO, System::nanoTime);
+		cache.get("org/1", load(loads, VALUE)).join();
+		cache.get("org/1", load(loads, VALUE)).join();
+		assertEquals(2, loads.get());
+	}
+}
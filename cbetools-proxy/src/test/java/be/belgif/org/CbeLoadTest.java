@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import io.quarkus.test.common.ResourceArg;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load test against a slow local stub of the CBE website:
+ * the number of concurrent requests should not be limited by the number of worker threads.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@QuarkusTest
+@TestProfile(CbeLoadTest.Profile.class)
+@WithTestResource(value = KbopubStub.class, initArgs = @ResourceArg(name = "delay", value = "500"))
+public class CbeLoadTest {
+	private final static int WORKERS = 8;
+	private final static int MAX_CONCURRENT = 64;
+	private final static int REQUESTS = 256;
+
+	@TestHTTPResource("/id/CbeRegisteredEntity/")
+	URL base;
+
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of("quarkus.thread-pool.core-threads", "1",
+						"quarkus.thread-pool.max-threads", String.valueOf(WORKERS),
+						"be.belgif.org.search.max-concurrent", String.valueOf(MAX_CONCURRENT),
+						// measure concurrency, not the adaptive timeout
+						"be.belgif.org.search.min-timeout", "PT15S");
+		}
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < REQUESTS; i++) {
+			HttpRequest req = HttpRequest.newBuilder(URI.create(base + String.format("02%08d", i)))
+										.header("Accept", "application/n-triples")
+										.build();
+			responses.add(client.sendAsync(req, HttpResponse.BodyHandlers.ofString()));
+		}
+		for (CompletableFuture<HttpResponse<String>> resp: responses) {
+			assertEquals(200, resp.get().statusCode());
+		}
+		long ms = (System.nanoTime() - start) / 1_000_000;
+
+		// blocking on worker threads would take at least REQUESTS / WORKERS * 500 ms
+		assertTrue(ms < REQUESTS / WORKERS * 500, "Took " + ms + " ms");
+		assertTrue(KbopubStub.PEAK.get() > WORKERS, "Peak " + KbopubStub.PEAK.get());
+		assertTrue(KbopubStub.PEAK.get() <= MAX_CONCURRENT, "Peak " + KbopubStub.PEAK.get());
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import be.bosa.dt.cbetools.converter.IndexBuilder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the memory-mapped local index
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CbeLocalIndexTest {
+	private final static String ORG = "<https://org.belgif.be/id/CbeRegisteredEntity/0671516647> "
+		+ "<http://www.w3.org/2004/02/skos/core#altLabel> \"FOD BOSA\"@nl .\n";
+	private final static String SITE = "<https://org.belgif.be/id/CbeEstablishmentUnit/2147812701> "
+		+ "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://www.w3.org/ns/org#Site> .\n";
+
+	/**
+	 * Write a small index, in the same format as the converter's IndexBuilder
+	 * 
+	 * @param dir directory
+	 * @throws IOException 
+	 */
+	private static void write(Path dir) throws IOException {
+		byte[] org = ORG.getBytes(StandardCharsets.UTF_8);
+		byte[] site = SITE.getBytes(StandardCharsets.UTF_8);
+		try (OutputStream out = Files.newOutputStream(dir.resolve("cbe-index.nt"))) {
+			out.write(org);
+			out.write(site);
+		}
+		try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(dir.resolve("cbe-index.idx")))) {
+			out.writeLong(0x4342454944583031L);
+			out.writeLong(2);
+			out.writeLong(671516647L);
+			out.writeLong(0);
+			out.writeInt(org.length);
+			out.writeInt(CbeLocalIndex.ORG);
+			out.writeLong(2147812701L);
+			out.writeLong(org.length);
+			out.writeInt(site.length);
+			out.writeInt(CbeLocalIndex.SITE);
+		}
+	}
+
+	@Test
+	public void testLookup(@TempDir Path dir) throws IOException {
+		write(dir);
+		CbeLocalIndex index = new CbeLocalIndex();
+		index.open(dir);
+
+		assertTrue(index.isEnabled());
+		assertEquals(ORG, new String(index.get(CbeLocalIndex.ORG, "0671516647"), StandardCharsets.UTF_8));
+		assertEquals(SITE, new String(index.get(CbeLocalIndex.SITE, "2147812701"), StandardCharsets.UTF_8));
+		assertNull(index.get(CbeLocalIndex.SITE, "0671516647"));
+		assertNull(index.get(CbeLocalIndex.ORG, "0200051479"));
+		assertEquals(2L, index.stats().get("hits"));
+		assertEquals(2L, index.stats().get("misses"));
+	}
+
+	@Test
+	public void testIndexBuilder(@TempDir Path dir) throws IOException {
+		String reg = "<https://org.belgif.be/id/cbe/registration/0671516647> "
+			+ "<http://purl.org/dc/terms/issued> \"2017-03-01\"^^<http://www.w3.org/2001/XMLSchema#date> .\n";
+		String orgAddr = "<https://org.belgif.be/id/CbeRegisteredEntity/0671516647> "
+			+ "<http://www.w3.org/ns/locn#address> <https://org.belgif.be/id/cbe/addr/1000_Wetstraat_16> .\n";
+		String siteAddr = "<https://org.belgif.be/id/CbeEstablishmentUnit/2147812701> "
+			+ "<http://www.w3.org/ns/locn#address> <https://org.belgif.be/id/cbe/addr/1000_Wetstraat_16> .\n";
+		String addr = "<https://org.belgif.be/id/cbe/addr/1000_Wetstraat_16> "
+			+ "<http://www.w3.org/ns/locn#postCode> \"1000\" .\n";
+		String other = "<https://org.belgif.be/id/cbe/addr/1000_Wetstraat_18> "
+			+ "<http://www.w3.org/ns/locn#postCode> \"1000\" .\n";
+		String org2 = "<https://org.belgif.be/id/CbeRegisteredEntity/0671516647> "
+			+ "<http://www.w3.org/ns/org#hasSite> <https://org.belgif.be/id/CbeEstablishmentUnit/2147812701> .\n";
+		String shortId = "<https://org.belgif.be/id/CbeRegisteredEntity/671516647> "
+			+ "<http://www.w3.org/2004/02/skos/core#altLabel> \"Short\" .\n";
+		String longId = "<https://org.belgif.be/id/CbeRegisteredEntity/067151664706715166470> "
+			+ "<http://www.w3.org/2004/02/skos/core#altLabel> \"Long\" .\n";
+		Files.writeString(dir.resolve("cbe.nt"), 
+			SITE + ORG + reg + addr + orgAddr + siteAddr + other + org2 + shortId + longId, StandardCharsets.UTF_8);
+		IndexBuilder.main(new String[] { dir.resolve("cbe.nt").toString(), dir.toString(), "--tmp=" + dir });
+
+		CbeLocalIndex index = new CbeLocalIndex();
+		index.open(dir);
+		assertEquals(2, index.stats().get("entries"));
+		// triples of the entity, its registration, and then its addresses
+		assertEquals(ORG + reg + orgAddr + org2 + addr, 
+			new String(index.get(CbeLocalIndex.ORG, "0671516647"), StandardCharsets.UTF_8));
+		assertEquals(SITE + siteAddr + addr, 
+			new String(index.get(CbeLocalIndex.SITE, "2147812701"), StandardCharsets.UTF_8));
+		// only exact 10 digit IDs match
+		assertNull(index.get(CbeLocalIndex.ORG, "671516647"));
+		assertNull(index.get(CbeLocalIndex.ORG, "00671516647"));
+	}
+
+	@Test
+	public void testInvalid(@TempDir Path dir) throws IOException {
+		write(dir);
+		Files.write(dir.resolve("cbe-index.idx"), new byte[20]);
+		CbeLocalIndex index = new CbeLocalIndex();
+		assertThrows(IOException.class, () -> index.open(dir));
+		assertFalse(index.isEnabled());
+	}
+}
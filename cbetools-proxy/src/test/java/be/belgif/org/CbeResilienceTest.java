@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test retries, circuit breaker, stale cache and adaptive timeouts, 
+ * against a local stub of the CBE website injecting faults
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+@QuarkusTest
+@TestProfile(CbeResilienceTest.Profile.class)
+@WithTestResource(KbopubStub.class)
+public class CbeResilienceTest {
+	private final static AtomicInteger NEXT_ID = new AtomicInteger();
+
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of("be.belgif.org.search.retries", "2",
+						"be.belgif.org.search.retry-delay", "PT0.01S",
+						"be.belgif.org.search.breaker.failures", "5",
+						"be.belgif.org.search.breaker.open", "PT1S",
+						"be.belgif.org.search.min-timeout", "PT0.5S",
+						"be.belgif.org.search.timeout", "PT5S",
+						"be.belgif.org.cache.ttl", "PT1S");
+		}
+	}
+
+	/**
+	 * Get a CBE ID that was not requested before, so it is not in the cache
+	 * 
+	 * @return CBE ID
+	 */
+	private static String newId() {
+		return String.format("03%08d", NEXT_ID.incrementAndGet());
+	}
+
+	/**
+	 * Get organization
+	 * 
+	 * @param id CBE ID
+	 * @return HTTP status code
+	 */
+	private static int get(String id) {
+		return given().accept("application/n-triples")
+			.when().get("/id/CbeRegisteredEntity/" + id)
+			.then().extract().statusCode();
+	}
+
+	/**
+	 * Stop injecting faults, and wait until the circuit breaker is closed again
+	 * 
+	 * @throws InterruptedException 
+	 */
+	@AfterEach
+	public void recover() throws InterruptedException {
+		KbopubStub.reset();
+		for (int i = 0; i < 30 && get(newId()) != 200; i++) {
+			Thread.sleep(100);
+		}
+	}
+
+	@Test
+	public void testRetry() {
+		int calls = KbopubStub.CALLS.get();
+		KbopubStub.inject(KbopubStub.Fault.ERROR, 2);
+		assertEquals(200, get(newId()));
+		assertEquals(calls + 3, KbopubStub.CALLS.get());
+
+		calls = KbopubStub.CALLS.get();
+		KbopubStub.inject(KbopubStub.Fault.RESET, 1);
+		assertEquals(200, get(newId()));
+		assertEquals(calls + 2, KbopubStub.CALLS.get());
+
+		// not more than the configured number of retries
+		KbopubStub.inject(KbopubStub.Fault.ERROR, 3);
+		assertEquals(502, get(newId()));
+	}
+
+	@Test
+	public void testCircuitBreaker() throws InterruptedException {
+		KbopubStub.inject(KbopubStub.Fault.ERROR, -1);
+		assertEquals(502, get(newId()));
+
+		// breaker opens after 5 consecutive failures (including retries), then fails fast
+		given().accept("application/n-triples")
+			.when().get("/id/CbeRegisteredEntity/" + newId())
+			.then().statusCode(503).header("Retry-After", notNullValue());
+		int calls = KbopubStub.CALLS.get();
+		assertEquals(503, get(newId()));
+		assertEquals(calls, KbopubStub.CALLS.get());
+
+		given().when().get("/stats/upstream")
+			.then().statusCode(200).body(containsString("cbe_upstream_breaker_state 1"));
+
+		// trial call after the breaker was open for a while
+		KbopubStub.reset();
+		Thread.sleep(1100);
+		assertEquals(200, get(newId()));
+		given().when().get("/stats/upstream")
+			.then().statusCode(200).body(containsString("cbe_upstream_breaker_state 0"));
+	}
+
+	@Test
+	public void testStaleCache() throws InterruptedException {
+		String id = newId();
+		assertEquals(200, get(id));
+
+		Thread.sleep(1100);
+		KbopubStub.inject(KbopubStub.Fault.ERROR, -1);
+		given().accept("application/n-triples")
+			.when().get("/id/CbeRegisteredEntity/" + id)
+			.then().statusCode(200)
+				.body(containsString("<https://org.belgif.be/id/CbeRegisteredEntity/0671516647>"));
+		given().when().get("/stats/cache")
+			.then().statusCode(200).body(containsString("cbe_cache_stale_hits 1"));
+	}
+
+	@Test
+	public void testAdaptiveTimeout() {
+		// learn the (fast) response time of the stub
+		for (int i = 0; i < 10; i++) {
+			assertEquals(200, get(newId()));
+		}
+
+		KbopubStub.inject(KbopubStub.Fault.SLOW, 1);
+		long start = System.nanoTime();
+		assertEquals(504, get(newId()));
+		long ms = (System.nanoTime() - start) / 1_000_000;
+		assertTrue(ms < 1500, "Took " + ms + " ms");
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the circuit breaker
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class CircuitBreakerTest {
+	@Test
+	public void testOpenAndClose() {
+		AtomicLong now = new AtomicLong();
+		CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(10), now::get);
+
+		for (int i = 0; i < 2; i++) {
+			assertTrue(breaker.allow());
+			breaker.failure();
+		}
+		// success resets the number of consecutive failures
+		assertTrue(breaker.allow());
+		breaker.success();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(breaker.allow());
+			breaker.failure();
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertFalse(breaker.allow());
+		assertEquals(Duration.ofSeconds(10), breaker.retryAfter());
+
+		// only one trial call when half-open
+		now.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertTrue(breaker.allow());
+		assertFalse(breaker.allow());
+		breaker.success();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+		assertTrue(breaker.allow());
+		assertEquals(1L, breaker.stats().get("opened"));
+		assertEquals(2L, breaker.stats().get("rejected"));
+	}
+
+	@Test
+	public void testTrialFails() {
+		AtomicLong now = new AtomicLong();
+		CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(10), now::get);
+
+		breaker.allow();
+		breaker.failure();
+		now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+		// trial call rejected locally, another trial is allowed
+		assertTrue(breaker.allow());
+		breaker.ignore();
+		assertTrue(breaker.allow());
+		breaker.failure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertFalse(breaker.allow());
+		assertEquals(2L, breaker.stats().get("opened"));
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local stub of the CBE public search website, returning the same test page for every known ID
+ * after a configurable delay (in milliseconds).
+ * Every organization has the same configurable number of sites, plus one unknown site,
+ * listed on pages of 10 sites. The list of sites of one organization never ends.
+ * Faults (errors, connection resets, slow responses) can be injected for a number of calls.
+ * 
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class KbopubStub implements QuarkusTestResourceLifecycleManager {
+	public final static String UNKNOWN = "0999999999";
+	public final static String ENDLESS = "0888888888";
+	public final static int PAGE_SIZE = 10;
+
+	public final static AtomicInteger CALLS = new AtomicInteger();
+	public final static AtomicInteger ACTIVE = new AtomicInteger();
+	public final static AtomicInteger PEAK = new AtomicInteger();
+
+	public enum Fault { ERROR, RESET, SLOW }
+
+	private final static AtomicReference<Fault> FAULT = new AtomicReference<>();
+	private final static AtomicInteger FAULT_CALLS = new AtomicInteger();
+	private final static long SLOW_DELAY = 2000;
+
+	private final static byte[] EMPTY = "<html><body><p>Geen gegevens opgenomen in KBO.</p></body></html>"
+											.getBytes(StandardCharsets.UTF_8);
+	private HttpServer server;
+	private ExecutorService executor;
+	private byte[] page;
+	private long delay = 0;
+	private int sites = 0;
+
+	@Override
+	public void init(Map<String, String> args) {
+		delay = Long.parseLong(args.getOrDefault("delay", "0"));
+		sites = Integer.parseInt(args.getOrDefault("sites", "0"));
+	}
+
+	/**
+	 * Inject a fault for the next calls
+	 * 
+	 * @param fault fault
+	 * @param calls number of calls, negative for all calls
+	 */
+	public static void inject(Fault fault, int calls) {
+		FAULT_CALLS.set(calls);
+		FAULT.set(fault);
+	}
+
+	/**
+	 * Stop injecting faults
+	 */
+	public static void reset() {
+		FAULT.set(null);
+	}
+
+	/**
+	 * Get the fault for the current call, if any
+	 * 
+	 * @return fault or null
+	 */
+	private static Fault nextFault() {
+		Fault fault = FAULT.get();
+		if (fault == null || FAULT_CALLS.getAndUpdate(n -> n > 0 ? n - 1 : n) == 0) {
+			return null;
+		}
+		return fault;
+	}
+
+	/**
+	 * Get the value of a parameter from a query string
+	 * 
+	 * @param query query string
+	 * @param name parameter name
+	 * @param def default value
+	 * @return value
+	 */
+	private static String param(String query, String name, String def) {
+		for (String pair: query.split("&")) {
+			if (pair.startsWith(name + "=")) {
+				return pair.substring(name.length() + 1);
+			}
+		}
+		return def;
+	}
+
+	/**
+	 * Generate page listing the sites of an organization
+	 * 
+	 * @param query query string with organization ID and page number
+	 * @return HTML page
+	 */
+	private byte[] siteList(String query) {
+		String org = param(query, "ondernemingsnummer", "");
+		int page = Integer.parseInt(param(query, "page", "1"));
+		int total = org.equals(ENDLESS) ? Integer.MAX_VALUE : sites + 1;
+		int last = (int) Math.min((long) page * PAGE_SIZE, total);
+
+		StringBuilder html = new StringBuilder("<html><body><table id=\"vestiginglijst\">");
+		for (int i = (page - 1) * PAGE_SIZE + 1; i <= last; i++) {
+			String id = (i <= sites || org.equals(ENDLESS)) 
+				? String.format("2.%03d.%03d.%03d", i / 1_000_000, i / 1000 % 1000, i % 1000)
+				: UNKNOWN;
+			html.append("<tr><td><a href=\"toonvestigingps.html?vestigingsnummer=").append(id).append("\">")
+				.append(id).append("</a></td><td>Vestiging ").append(i).append("</td></tr>");
+		}
+		html.append("</table>");
+		if (last < total) {
+			html.append("<a href=\"vestiginglijst.html?ondernemingsnummer=").append(org)
+				.append("&amp;page=").append(page + 1).append("\">Volgende</a>");
+		}
+		return html.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Handle a request
+	 * 
+	 * @param exchange HTTP exchange
+	 * @throws IOException 
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		CALLS.incrementAndGet();
+		PEAK.accumulateAndGet(ACTIVE.incrementAndGet(), Math::max);
+		try {
+			Fault fault = nextFault();
+			if (fault == Fault.ERROR) {
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+			if (fault == Fault.RESET) {
+				// close the connection without a response
+				return;
+			}
+			if (delay > 0 || fault == Fault.SLOW) {
+				Thread.sleep(fault == Fault.SLOW ? SLOW_DELAY : delay);
+			}
+			String query = exchange.getRequestURI().getQuery();
+			byte[] body = (query != null && query.contains(UNKNOWN)) ? EMPTY
+							: exchange.getRequestURI().getPath().endsWith("vestiginglijst.html") ? siteList(query) 
+							: page;
+			exchange.getResponseHeaders().add("Content-Type", "text/html;charset=utf-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} finally {
+			ACTIVE.decrementAndGet();
+			exchange.close();
+		}
+	}
+
+	@Override
+	public Map<String, String> start() {
+		try (InputStream in = KbopubStub.class.getResourceAsStream("test-bosa.html")) {
+			page = in.readAllBytes();
+			executor = Executors.newCachedThreadPool();
+			server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1000);
+			server.setExecutor(executor);
+			server.createContext("/", this::handle);
+			server.start();
+		} catch (IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+		return Map.of("be.belgif.org.search.url", 
+						"http://127.0.0.1:" + server.getAddress().getPort() + "/kbopub/");
+	}
+
+	@Override
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.belgif.org;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for coalescing concurrent calls
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class SingleFlightTest {
+	@Test
+	public void testConcurrent() throws Exception {
+		SingleFlight<String, String> flights = new SingleFlight<>();
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> first = pool.submit(() -> flights.run("org/1", () -> {
+				calls.incrementAndGet();
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+				return CompletableFuture.completedFuture("result");
+			}).join());
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			List<CompletableFuture<String>> others = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				others.add(flights.run("org/1", () -> {
+					calls.incrementAndGet();
+					return CompletableFuture.completedFuture("other");
+				}));
+			}
+			assertEquals(1, flights.stats().get("in_flight").intValue());
+			release.countDown();
+
+			assertEquals("result", first.get(5, TimeUnit.SECONDS));
+			for (CompletableFuture<String> other: others) {
+				assertEquals("result", other.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, calls.get());
+			assertEquals(20L, flights.stats().get("shared"));
+			assertEquals(0, flights.stats().get("in_flight").intValue());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testException() {
+		SingleFlight<String, String> flights = new SingleFlight<>();
+		assertThrows(CompletionException.class, () -> flights.run("org/1", () -> {
+			throw new IllegalStateException("upstream down");
+		}).join());
+
+		// failures are not kept
+		assertEquals("ok", flights.run("org/1", () -> CompletableFuture.completedFuture("ok")).join());
+		assertEquals(2L, flights.stats().get("calls"));
+	}
+}
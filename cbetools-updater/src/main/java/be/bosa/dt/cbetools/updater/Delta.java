@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.updater;
+
+import be.bosa.dt.cbetools.common.CBEEmitter;
+import be.bosa.dt.cbetools.common.CsvBulkReader;
+import be.bosa.dt.cbetools.common.CsvInput;
+import be.bosa.dt.cbetools.common.NTriplesSink;
+import be.bosa.dt.cbetools.common.Options;
+import be.bosa.dt.cbetools.common.RowEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compute the exact triples added and removed between two full CBE open data dumps.
+ * 
+ * Both dumps are converted to N-Triples and spilled to a number of partition files, based on the subject.
+ * Since the subject is (nearly always) derived from the enterprise or establishment number,
+ * only one partition of the old and the new dump has to be kept in memory at any time.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class Delta {
+	private final static Logger LOG = LoggerFactory.getLogger(Delta.class);
+
+	// default number of partitions
+	private final static int PARTITIONS = 128;
+
+	// number of rows in a batch
+	private final static int BATCH_SIZE = 10000;
+
+	// initial size of N-Triples buffers, in bytes
+	private final static int BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * Map files to the functions writing N-Triples
+	 */
+	private final static Map<String, RowEmitter> EMITTERS = new LinkedHashMap<String, RowEmitter>() {
+		{
+			put("enterprise.csv", CBEEmitter.Org);
+			put("denomination.csv", CBEEmitter.Names);
+			put("establishment.csv", CBEEmitter.Sites);
+			put("contact.csv", CBEEmitter.Contacts);
+			put("activity.csv", CBEEmitter.Activities);
+			put("address.csv", CBEEmitter.Addresses);
+			put("code.csv", CBEEmitter.Codes);
+			put("Brussels_addresses.csv", CBEEmitter.Best);
+			put("Flanders_addresses.csv", CBEEmitter.Best);
+			put("Wallonia_addresses.csv", CBEEmitter.Best);
+		}
+	};
+
+	/**
+	 * BEST address files, not part of the KBO download, only compared when available in both dumps
+	 */
+	private final static List<String> BEST_FILES = List.of("Brussels_addresses.csv", 
+		"Flanders_addresses.csv", "Wallonia_addresses.csv");
+
+	private final File tmpdir;
+	private final int partitions;
+	private final Set<String> skipped = new HashSet<>();
+
+	private long added = 0;
+	private long removed = 0;
+
+	/**
+	 * Get partition file
+	 * 
+	 * @param name name of the dump (old or new)
+	 * @param i partition number
+	 * @return file
+	 */
+	private File partition(String name, int i) {
+		return new File(tmpdir, String.format("%s-%05d.nt", name, i));
+	}
+
+	/**
+	 * Skip the BEST address files that are missing in one or both of the dumps,
+	 * otherwise all their geocoordinates would be reported as removed or added.
+	 * 
+	 * @param before old dump
+	 * @param after new dump
+	 */
+	public void checkBest(CsvInput before, CsvInput after) {
+		for (String file: BEST_FILES) {
+			if (!before.exists(file) || !after.exists(file)) {
+				LOG.warn("BEST address file {} not found in both dumps, skipped", file);
+				skipped.add(file);
+			}
+		}
+	}
+
+	/**
+	 * Convert all files of a dump and write the triples to the partition files
+	 * 
+	 * @param input CSV input directory or zip
+	 * @param name name of the dump (old or new)
+	 * @throws IOException 
+	 */
+	public void spill(CsvInput input, String name) throws IOException {
+		OutputStream[] outs = new OutputStream[partitions];
+		NTriplesSink sink = new NTriplesSink(BUFFER_SIZE);
+
+		try {
+			for (int i = 0; i < partitions; i++) {
+				outs[i] = new BufferedOutputStream(new FileOutputStream(partition(name, i)), 64 * 1024);
+			}
+			for (Map.Entry<String, RowEmitter> e: EMITTERS.entrySet()) {
+				if (skipped.contains(e.getKey())) {
+					continue;
+				}
+				LOG.info("Reading CSV file {} from {}", e.getKey(), input);
+				try (Reader csv = input.open(e.getKey());
+					CsvBulkReader r = new CsvBulkReader(csv)) {
+					while (r.hasNext()) {
+						for (String[] row: r.readNext(BATCH_SIZE)) {
+							e.getValue().emit(row, sink);
+						}
+						sink.writePartitioned(outs);
+						sink.reset();
+					}
+				}
+			}
+		} finally {
+			for (OutputStream out: outs) {
+				if (out != null) {
+					out.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read the distinct lines of a partition file and delete the file
+	 * 
+	 * @param f partition file
+	 * @return set of N-Triples lines
+	 * @throws IOException 
+	 */
+	private static Set<String> read(File f) throws IOException {
+		Set<String> lines = new HashSet<>(Files.readAllLines(f.toPath(), StandardCharsets.UTF_8));
+		Files.delete(f.toPath());
+		return lines;
+	}
+
+	/**
+	 * Compare old and new partitions, and write the removed and added triples.
+	 * Both dumps must have been spilled first.
+	 * 
+	 * @param out delta writer
+	 * @throws IOException 
+	 */
+	public void diff(DeltaWriter out) throws IOException {
+		for (int i = 0; i < partitions; i++) {
+			Set<String> before = read(partition("old", i));
+			Set<String> after = read(partition("new", i));
+
+			List<String> del = before.stream().filter(l -> !after.contains(l)).sorted()
+									.collect(Collectors.toList());
+			List<String> ins = after.stream().filter(l -> !before.contains(l)).sorted()
+									.collect(Collectors.toList());
+			for (String line: del) {
+				out.removed(line);
+			}
+			for (String line: ins) {
+				out.added(line);
+			}
+			removed += del.size();
+			added += ins.size();
+			LOG.debug("Partition {}: {} triples before, {} after, {} removed, {} added", 
+				i, before.size(), after.size(), del.size(), ins.size());
+		}
+	}
+
+	/**
+	 * Number of triples added
+	 * 
+	 * @return number of triples
+	 */
+	public long added() {
+		return added;
+	}
+
+	/**
+	 * Number of triples removed
+	 * 
+	 * @return number of triples
+	 */
+	public long removed() {
+		return removed;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param tmpdir directory for the partition files
+	 * @param partitions number of partitions
+	 */
+	public Delta(File tmpdir, int partitions) {
+		this.tmpdir = tmpdir;
+		this.partitions = partitions;
+	}
+
+	/**
+	 * Main
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.out.println("Usage: delta <old_dir|old_zip> <new_dir|new_zip> <output_dir> "
+				+ "[--format=patch|sparql] [--partitions=N] [--graph=IRI] [--tmp=dir]");
+			System.exit(-1);
+		}
+
+		File olddir = new File(args[0]);
+		File newdir = new File(args[1]);
+		File outdir = new File(args[2]);
+
+		Options opts = new Options(args, 3);
+		String format = opts.get("format", "patch");
+		int partitions = opts.getInt("partitions", PARTITIONS);
+		String graph = opts.get("graph", null);
+		File tmproot = new File(opts.get("tmp", outdir.getPath()));
+
+		File outf = new File(outdir, format.equals("sparql") ? "cbe-delta.ru" : "cbe-delta.rdfp");
+
+		LOG.info("--- START ---");
+		LOG.info("Params old = {}, new = {}, out = {}, partitions = {}", olddir, newdir, outf, partitions);
+
+		File tmpdir = Files.createTempDirectory(tmproot.toPath(), "cbe-delta").toFile();
+		Delta delta = new Delta(tmpdir, partitions);
+		try {
+			try (CsvInput before = new CsvInput(olddir);
+				CsvInput after = new CsvInput(newdir)) {
+				delta.checkBest(before, after);
+				delta.spill(before, "old");
+				delta.spill(after, "new");
+			}
+			try (BufferedWriter w = new BufferedWriter(
+					new OutputStreamWriter(new FileOutputStream(outf), StandardCharsets.UTF_8));
+				DeltaWriter out = DeltaWriter.create(format, w, graph)) {
+				delta.diff(out);
+			}
+		} finally {
+			for (File f: tmpdir.listFiles()) {
+				f.delete();
+			}
+			tmpdir.delete();
+		}
+		LOG.info("Triples removed = {}, added = {}", delta.removed(), delta.added());
+
+		LOG.info("--- END ---");
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.updater;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.util.UUID;
+
+/**
+ * Writes the triples added to or removed from the dataset, as one N-Triples line per triple,
+ * in a format that can be applied to a triple store.
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+abstract class DeltaWriter implements AutoCloseable {
+	protected final Writer w;
+	protected final String graph;
+
+	/**
+	 * Create a delta writer for a specific format
+	 *
+	 * @param format "patch" or "sparql"
+	 * @param w writer
+	 * @param graph named graph IRI or null for the default graph
+	 * @return delta writer
+	 * @throws IOException
+	 */
+	public static DeltaWriter create(String format, Writer w, String graph) throws IOException {
+		switch (format) {
+			case "patch":
+				return new Patch(w, graph);
+			case "sparql":
+				return new Sparql(w, graph);
+			default:
+				throw new IllegalArgumentException("Unknown delta format " + format);
+		}
+	}
+
+	/**
+	 * Write a triple to be removed
+	 *
+	 * @param line N-Triples line, without newline
+	 * @throws IOException
+	 */
+	public abstract void removed(String line) throws IOException;
+
+	/**
+	 * Write a triple to be added
+	 *
+	 * @param line N-Triples line, without newline
+	 * @throws IOException
+	 */
+	public abstract void added(String line) throws IOException;
+
+	/**
+	 * Finish the delta and flush the writer, without closing it
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public abstract void close() throws IOException;
+
+	/**
+	 * Constructor
+	 *
+	 * @param w writer
+	 * @param graph named graph IRI or null
+	 */
+	protected DeltaWriter(Writer w, String graph) {
+		this.w = w;
+		this.graph = graph;
+	}
+
+	/**
+	 * RDF Patch (https://afs.github.io/rdf-patch/), all changes in a single transaction
+	 */
+	static class Patch extends DeltaWriter {
+		/**
+		 * Write a row, adding the graph (if any) as fourth term
+		 *
+		 * @param op operation
+		 * @param line N-Triples line
+		 * @throws IOException
+		 */
+		private void row(char op, String line) throws IOException {
+			w.write(op);
+			w.write(' ');
+			if (graph == null) {
+				w.write(line);
+			} else {
+				// strip the final dot
+				w.write(line, 0, line.length() - 1);
+				w.write('<');
+				w.write(graph);
+				w.write("> .");
+			}
+			w.write('\n');
+		}
+
+		@Override
+		public void removed(String line) throws IOException {
+			row('D', line);
+		}
+
+		@Override
+		public void added(String line) throws IOException {
+			row('A', line);
+		}
+
+		@Override
+		public void close() throws IOException {
+			w.write("TC .\n");
+			w.flush();
+		}
+
+		/**
+		 * Constructor, writes the header and starts the transaction
+		 *
+		 * @param w writer
+		 * @param graph named graph or null
+		 * @throws IOException
+		 */
+		Patch(Writer w, String graph) throws IOException {
+			super(w, graph);
+			w.write("H id <uuid:" + UUID.randomUUID() + "> .\n");
+			w.write("TX .\n");
+		}
+	}
+
+	/**
+	 * SPARQL Update, using DELETE DATA and INSERT DATA operations of limited size
+	 */
+	static class Sparql extends DeltaWriter {
+		// maximum number of triples per operation
+		final static int MAX_TRIPLES = 10_000;
+
+		private String op = null;
+		private int count = 0;
+
+		/**
+		 * Close the current operation, if any
+		 *
+		 * @throws IOException
+		 */
+		private void closeOp() throws IOException {
+			if (op != null) {
+				w.write(graph == null ? "};\n" : "}};\n");
+				op = null;
+			}
+		}
+
+		/**
+		 * Write a triple, starting a new operation when needed
+		 *
+		 * @param kind DELETE or INSERT
+		 * @param line N-Triples line
+		 * @throws IOException
+		 */
+		private void triple(String kind, String line) throws IOException {
+			if (!kind.equals(op) || count == MAX_TRIPLES) {
+				closeOp();
+				w.write(kind);
+				w.write(graph == null ? " DATA {\n" : " DATA { GRAPH <" + graph + "> {\n");
+				op = kind;
+				count = 0;
+			}
+			w.write(line);
+			w.write('\n');
+			count++;
+		}
+
+		@Override
+		public void removed(String line) throws IOException {
+			triple("DELETE", line);
+		}
+
+		@Override
+		public void added(String line) throws IOException {
+			triple("INSERT", line);
+		}
+
+		@Override
+		public void close() throws IOException {
+			closeOp();
+			w.flush();
+		}
+
+		/**
+		 * Constructor
+		 *
+		 * @param w writer
+		 * @param graph named graph or null
+		 */
+		Sparql(Writer w, String graph) {
+			super(w, graph);
+		}
+	}
+}
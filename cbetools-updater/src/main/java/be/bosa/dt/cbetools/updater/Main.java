@@ -27,14 +27,12 @@ package be.bosa.dt.cbetools.updater;
 
 import be.bosa.dt.cbetools.common.CBEConverter;
 import be.bosa.dt.cbetools.common.CsvBulkReader;
+import be.bosa.dt.cbetools.common.CsvInput;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
@@ -197,7 +195,7 @@ public class Main {
 	 */
 	public static void main(String[] args) throws IOException {
 		if (args.length < 2) {
-			System.out.println("Usage: cbe <input_dir> <output_dir>");
+			System.out.println("Usage: cbe <input_dir|input_zip> <output_dir>");
 			System.exit(-1);
 		}
 
@@ -207,33 +205,33 @@ public class Main {
 		LOG.info("--- START ---");
 		LOG.info("Params in = {}, out = {}", basedir, outdir);
 
-		for (String file : MAP_DEL.keySet()) {
-			File delfile = new File(outdir, file.replaceAll("_delete", "_id"));
-			try (FileOutputStream fout = new FileOutputStream(delfile);
+		try (CsvInput input = new CsvInput(basedir)) {
+			for (String file : MAP_DEL.keySet()) {
+				File delfile = new File(outdir, file.replaceAll("_delete", "_id"));
+				try (FileOutputStream fout = new FileOutputStream(delfile);
+					BufferedWriter w = new BufferedWriter(
+						new OutputStreamWriter(fout, StandardCharsets.UTF_8))) {
+					LOG.info("Reading CSV file {}, writing {}", file, delfile);
+					add(w, input.open(file), MAP_DEL.get(file));
+				} catch (IOException ex) {
+				}
+			}
+
+			File outf = new File(args[1], "cbe-upd.nt");
+			// inserts for companies / organizations
+			try (FileOutputStream fout = new FileOutputStream(outf);
 				BufferedWriter w = new BufferedWriter(
 					new OutputStreamWriter(fout, StandardCharsets.UTF_8))) {
-				LOG.info("Reading CSV file {}, writing {}", file, delfile);
-				InputStream fin = new FileInputStream(new File(basedir, file));
-				add(w, new InputStreamReader(fin, StandardCharsets.UTF_8), MAP_DEL.get(file));
-			} catch (IOException ex) {
-			}
-		}
+				RDFWriter rdf = Rio.createWriter(RDFFormat.NTRIPLES, w);
+				rdf.startRDF();
 
-		File outf = new File(args[1], "cbe-upd.nt");
-		// inserts for companies / organizations
-		try (FileOutputStream fout = new FileOutputStream(outf);
-			BufferedWriter w = new BufferedWriter(
-				new OutputStreamWriter(fout, StandardCharsets.UTF_8))) {
-			RDFWriter rdf = Rio.createWriter(RDFFormat.NTRIPLES, w);
-			rdf.startRDF();
-
-			for (String file : MAP_INS.keySet()) {
-				LOG.info("Reading CSV file {}", file);
-				InputStream fin = new FileInputStream(new File(basedir, file));
-				add(rdf, new InputStreamReader(fin, StandardCharsets.UTF_8), MAP_INS.get(file));
-			}
+				for (String file : MAP_INS.keySet()) {
+					LOG.info("Reading CSV file {}", file);
+					add(rdf, input.open(file), MAP_INS.get(file));
+				}
 
-			rdf.endRDF();
+				rdf.endRDF();
+			}
 		}
 
 		LOG.info("--- END ---");
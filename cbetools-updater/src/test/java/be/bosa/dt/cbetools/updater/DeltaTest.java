@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026, FPS BOSA
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package be.bosa.dt.cbetools.updater;
+
+import be.bosa.dt.cbetools.common.CsvInput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the delta between two full dumps
+ *
+ * @author Bart Hanssens <bart.hanssens@bosa.fgov.be>
+ */
+public class DeltaTest {
+	private final static String ORG = "<https://org.belgif.be/id/CbeRegisteredEntity/0200065765>";
+	private final static String GRAPH = "http://example.com/graph";
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Write a small dump, with only one enterprise
+	 * 
+	 * @param name name of the directory
+	 * @param denomination denomination row
+	 * @param activity activity row or null
+	 * @param best BEST address row
+	 * @return directory
+	 * @throws IOException 
+	 */
+	private File dump(String name, String denomination, String activity, String best) throws IOException {
+		File d = new File(dir.toFile(), name);
+		d.mkdir();
+		write(d, "enterprise.csv", "\"0200.065.765\",\"AC\",\"000\",\"2\",\"\",\"09-08-1960\"");
+		write(d, "denomination.csv", denomination);
+		write(d, "establishment.csv", null);
+		write(d, "contact.csv", null);
+		write(d, "activity.csv", activity);
+		write(d, "address.csv", null);
+		write(d, "code.csv", null);
+		write(d, "Brussels_addresses.csv", best);
+		return d;
+	}
+
+	/**
+	 * Write a CSV file with a header and at most one row
+	 * 
+	 * @param d directory
+	 * @param file file name
+	 * @param row CSV row or null
+	 * @throws IOException 
+	 */
+	private static void write(File d, String file, String row) throws IOException {
+		String content = "\"header\"\n" + ((row != null) ? row + "\n" : "");
+		Files.writeString(new File(d, file).toPath(), content, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * BEST address row, with coordinates
+	 * 
+	 * @param x longitude
+	 * @param y latitude
+	 * @return CSV row
+	 */
+	private static String best(String x, String y) {
+		String[] cols = new String[21];
+		Arrays.fill(cols, "\"\"");
+		cols[2] = "\"Wetstraat\"";
+		cols[3] = "\"16\"";
+		cols[5] = "\"1000\"";
+		cols[11] = "\"Brussel\"";
+		cols[19] = "\"" + x + "\"";
+		cols[20] = "\"" + y + "\"";
+		return String.join(",", cols);
+	}
+
+	@Test
+	public void testPatch() throws IOException {
+		File before = dump("old", "\"0200.065.765\",\"2\",\"001\",\"Oude Naam\"", null, 
+			best("4.3668", "50.8465"));
+		File after = dump("new", "\"0200.065.765\",\"2\",\"001\",\"Nieuwe \"\"Naam\"\"\"", 
+			"\"0200.065.765\",\"RSZ\",\"2008\",\"84130\",\"MAIN\"", best("4.3669", "50.8465"));
+
+		File tmp = new File(dir.toFile(), "tmp");
+		tmp.mkdir();
+		Delta delta = new Delta(tmp, 4);
+		try (CsvInput in1 = new CsvInput(before);
+			CsvInput in2 = new CsvInput(after)) {
+			delta.checkBest(in1, in2);
+			delta.spill(in1, "old");
+			delta.spill(in2, "new");
+		}
+		StringWriter w = new StringWriter();
+		try (DeltaWriter out = DeltaWriter.create("patch", w, GRAPH)) {
+			delta.diff(out);
+		}
+
+		String g = " <" + GRAPH + "> .";
+		String addr = "<https://org.belgif.be/id/cbe/addr/Brussel_Wetstraat_16_1000>";
+		String geo = " <http://www.w3.org/ns/locn#geometry> ";
+		String wkt = "^^<http://www.opengis.net/ont/geosparql#wktLiteral>";
+		List<String> expected = List.of(
+			"D " + ORG + " <http://www.w3.org/2000/01/rdf-schema#label> \"Oude Naam\"@nl" + g,
+			"D " + ORG + " <http://www.w3.org/ns/regorg#legalName> \"Oude Naam\"@nl" + g,
+			"A " + ORG + " <http://www.w3.org/2000/01/rdf-schema#label> \"Nieuwe \\\"Naam\\\"\"@nl" + g,
+			"A " + ORG + " <http://www.w3.org/ns/regorg#legalName> \"Nieuwe \\\"Naam\\\"\"@nl" + g,
+			"A " + ORG + " <http://www.w3.org/ns/regorg#orgActivity> <http://vocab.belgif.be/auth/nace2008/84130>" + g,
+			"D " + addr + geo + "\"POINT(4.3668 50.8465)\"" + wkt + g,
+			"A " + addr + geo + "\"POINT(4.3669 50.8465)\"" + wkt + g);
+
+		List<String> lines = Arrays.asList(w.toString().split("\n"));
+		assertTrue(lines.get(0).startsWith("H id <uuid:"));
+		assertEquals("TX .", lines.get(1));
+		assertEquals("TC .", lines.get(lines.size() - 1));
+		assertEquals(expected.stream().sorted().toList(), lines.subList(2, lines.size() - 1).stream().sorted().toList());
+		assertEquals(4, delta.added());
+		assertEquals(3, delta.removed());
+	}
+
+	@Test
+	public void testSparqlSplit() throws IOException {
+		StringWriter w = new StringWriter();
+		try (DeltaWriter out = DeltaWriter.create("sparql", w, GRAPH)) {
+			out.removed("<http://example.com/s> <http://example.com/p> \"old\" .");
+			for (int i = 0; i <= DeltaWriter.Sparql.MAX_TRIPLES; i++) {
+				out.added("<http://example.com/s> <http://example.com/p> \"" + i + "\" .");
+			}
+		}
+		String[] ops = w.toString().split("\n}};\n");
+		assertEquals(3, ops.length);
+		assertEquals("DELETE DATA { GRAPH <" + GRAPH + "> {\n<http://example.com/s> <http://example.com/p> \"old\" .", 
+			ops[0]);
+		assertTrue(ops[1].startsWith("INSERT DATA { GRAPH <" + GRAPH + "> {\n"));
+		assertEquals(DeltaWriter.Sparql.MAX_TRIPLES + 1, ops[1].split("\n").length);
+		assertEquals("INSERT DATA { GRAPH <" + GRAPH + "> {\n<http://example.com/s> <http://example.com/p> \"" 
+			+ DeltaWriter.Sparql.MAX_TRIPLES + "\" .", ops[2]);
+		assertTrue(w.toString().endsWith("}};\n"));
+	}
+}